@@ -0,0 +1,46 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.QuerydslApplication;
+import data.jpa.querydsl.generator.GenerationReport;
+import data.jpa.querydsl.generator.GeneratorProperties;
+import data.jpa.querydsl.generator.MemberDataGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크마다 독립된 in-memory H2 위에 애플리케이션 컨텍스트를 띄운다.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        final List<String> args = new ArrayList<>(Arrays.asList(
+            "--spring.profiles.active=bench",
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.jpa.properties.hibernate.use_sql_comments=false",
+            "--decorator.datasource.enabled=false",
+            "--logging.level.root=warn",
+            "--logging.level.org.hibernate.SQL=warn"));
+        args.addAll(Arrays.asList(extraArgs));
+        return SpringApplication.run(QuerydslApplication.class, args.toArray(new String[0]));
+    }
+
+    public static GenerationReport seed(ConfigurableApplicationContext context, int teamCount, long memberCount) {
+        final GeneratorProperties properties = new GeneratorProperties();
+        properties.setTeamCount(teamCount);
+        properties.setMemberCount(memberCount);
+        properties.setTeamSizeSkew(1.0);
+        properties.setUsernameCardinality((int) Math.min(Integer.MAX_VALUE, memberCount / 10 + 1));
+        return context.getBean(MemberDataGenerator.class).generate(properties);
+    }
+}
@@ -0,0 +1,100 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.columnar.MemberColumnarIndex;
+import data.jpa.querydsl.columnar.MemberColumnarRepository;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컬럼형 메모리 인덱스(MemberColumnarRepository) 와 JPA 경로(MemberRepository) 의 검색/페이징 비교.
+ * 메모리 사용량 추정치는 setUp 에서 로그로 남긴다. 두 경로 모두 결과 캐시는 끈다.
+ *
+ * ./gradlew jmh -PjmhInclude=MemberColumnarBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberColumnarBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberColumnarBenchmark.class);
+
+    @Param({"100000"})
+    public long memberCount;
+
+    @Param({"NONE", "LOW", "MEDIUM", "HIGH", "POINT"})
+    public Selectivity selectivity;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberColumnarRepository memberColumnarRepository;
+    private MemberSearchCondition condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--member.search.result-cache.enabled=false",
+            "--member.search.columnar.enabled=true",
+            "--logging.level.data.jpa.querydsl.benchmark=info");
+        BenchmarkContext.seed(context, 1000, memberCount);
+        final MemberColumnarIndex index = context.getBean(MemberColumnarIndex.class);
+        index.reload();
+        log.info("columnar index : {}", index.stats());
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberColumnarRepository = context.getBean(MemberColumnarRepository.class);
+        condition = selectivity.condition();
+        pageable = PageRequest.of(0, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> jpaSearch() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> columnarSearch() {
+        return memberColumnarRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> jpaPage() {
+        return memberRepository.searchComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> columnarPage() {
+        return memberColumnarRepository.searchComplex(condition, pageable);
+    }
+}
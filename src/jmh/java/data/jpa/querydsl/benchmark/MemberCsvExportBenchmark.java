@@ -0,0 +1,94 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.service.MemberCsvExportService;
+import data.jpa.querydsl.service.MemberExportReport;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gzip CSV export 처리량. 응답 대신 버리는 스트림에 쓰므로 조회 + CSV 인코딩 + 압축 비용만 잰다.
+ * Bytes 보조 카운터가 초당 바이트로 나오므로 csvBytes / 1e6 이 CSV 기준 MB/s, gzipBytes / 1e6 이 전송량 기준 MB/s 다.
+ * compressionLevel 0 은 압축 없이 gzip 틀만 씌운 기준선이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberCsvExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int memberCount;
+
+    @Param({"0", "1", "6"})
+    public int compressionLevel;
+
+    private ConfigurableApplicationContext context;
+    private MemberCsvExportService exportService;
+    private final MemberSearchCondition condition = new MemberSearchCondition();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long csvBytes;
+        public long gzipBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            csvBytes = 0;
+            gzipBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--member.export.compression-level=" + compressionLevel,
+            "--member.search.result-cache.enabled=false");
+        BenchmarkContext.seed(context, 100, memberCount);
+        exportService = context.getBean(MemberCsvExportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MemberExportReport export(Bytes bytes) throws IOException {
+        final MemberExportReport report = exportService.export(condition, new DiscardingOutputStream());
+        bytes.csvBytes += report.getCsvBytes();
+        bytes.gzipBytes += report.getGzipBytes();
+        return report;
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insert 처리량 비교. 한 번 실행에 rows 건을 넣으므로 rows / (ms/op) 가 처리량이다.
+ * baseline 은 시퀀스를 id 마다 호출하고(increment_size=1) JDBC 배치를 끈 설정,
+ * pooled 는 기본 설정(pooled-lo 50, batch_size 100, order_inserts)이다.
+ * 두 경로 모두 FLUSH_INTERVAL 건마다 flush/clear, COMMIT_INTERVAL 건마다 커밋한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MemberInsertBenchmark {
+
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final int COMMIT_INTERVAL = 50_000;
+
+    @Param({"baseline", "pooled"})
+    public String idGeneration;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+    private MemberRepository memberRepository;
+    private EntityManager em;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<String> args = new ArrayList<>();
+        // insert 마다 붙는 읽기 모델 동기화는 비교 대상이 아니므로 끈다
+        args.add("--member.search.read-model.enabled=false");
+        if ("baseline".equals(idGeneration)) {
+            args.add("--spring.jpa.properties.id.sequence.increment_size=1");
+            args.add("--spring.jpa.properties.id.sequence.optimizer=none");
+            args.add("--spring.jpa.properties.hibernate.jdbc.batch_size=0");
+            args.add("--spring.jpa.properties.hibernate.order_inserts=false");
+        }
+        context = BenchmarkContext.start(args.toArray(new String[0]));
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("delete from member_team");
+        jdbcTemplate.update("delete from member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jpaRepositorySave() {
+        for (int from = 0; from < rows; from += COMMIT_INTERVAL) {
+            final int to = Math.min(rows, from + COMMIT_INTERVAL);
+            final int start = from;
+            transaction.execute(status -> {
+                for (int i = start; i < to; i++) {
+                    memberJpaRepository.save(new Member("member" + i, i % 100));
+                    if ((i + 1) % FLUSH_INTERVAL == 0) {
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    @Benchmark
+    public void repositorySaveAll() {
+        for (int from = 0; from < rows; from += COMMIT_INTERVAL) {
+            final int to = Math.min(rows, from + COMMIT_INTERVAL);
+            final int start = from;
+            transaction.execute(status -> {
+                for (int chunk = start; chunk < to; chunk += FLUSH_INTERVAL) {
+                    final List<Member> members = new ArrayList<>(FLUSH_INTERVAL);
+                    for (int i = chunk; i < Math.min(to, chunk + FLUSH_INTERVAL); i++) {
+                        members.add(new Member("member" + i, i % 100));
+                    }
+                    memberRepository.saveAll(members);
+                    em.flush();
+                    em.clear();
+                }
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package data.jpa.querydsl.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.json.MemberTeamDtoJsonSerializer;
+import data.jpa.querydsl.json.MemberTeamPageJsonModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /v2, /v3 응답 한 건(Page&lt;MemberTeamDto&gt;) 직렬화 비교.
+ * bean 은 기본 BeanSerializer + PageImpl 직렬화, streaming 은 json 패키지의 serializer 를 등록한 경우다.
+ * 요청당 할당량은 gc 프로파일러의 gc.alloc.rate.norm(B/op) 으로 본다. 출력 버퍼는 재사용해서 할당량에서 뺀다.
+ * 컨트롤러처럼 선언 타입 Page&lt;MemberTeamDto&gt; 로 쓴다.
+ *
+ * ./gradlew jmh -PjmhInclude=MemberPageSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberPageSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private ObjectWriter beanWriter;
+    private ObjectWriter streamingWriter;
+    private Page<MemberTeamDto> page;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final TypeReference<Page<MemberTeamDto>> pageType = new TypeReference<Page<MemberTeamDto>>() {};
+        beanWriter = new ObjectMapper().writerFor(pageType);
+        streamingWriter = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(new MemberTeamDtoJsonSerializer()))
+            .registerModule(new MemberTeamPageJsonModule())
+            .writerFor(pageType);
+
+        final List<MemberTeamDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            final Long teamId = i % 10 == 0 ? null : (long) (i % 7);
+            content.add(new MemberTeamDto((long) i, "member" + i, i % 100, teamId,
+                teamId != null ? "team" + teamId : null));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 100_000);
+        out = new ByteArrayOutputStream(pageSize * 128);
+    }
+
+    @Benchmark
+    public int bean() throws IOException {
+        return write(beanWriter);
+    }
+
+    @Benchmark
+    public int streaming() throws IOException {
+        return write(streamingWriter);
+    }
+
+    private int write(ObjectWriter writer) throws IOException {
+        out.reset();
+        writer.writeValue(out, page);
+        return out.size();
+    }
+}
@@ -0,0 +1,93 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * searchSimple(fetchResults) 과 searchComplex(PageableExecutionUtils 로 count 분리),
+ * searchParallel(content/count 동시 실행) 을 선택도와 페이지 깊이별로 비교한다.
+ * searchParallel 의 지연 시간은 두 쿼리의 합이 아니라 긴 쪽에 가까워야 한다.
+ * readModel=true 면 content 쿼리를 member_team 읽기 모델에서 읽는다.
+ * 페이지가 조건의 전체 건수를 넘어가면 빈 페이지가 되므로, 깊은 페이지는 선택도가 낮은 조건에서 의미가 있다.
+ *
+ * ./gradlew jmh -PjmhInclude=MemberPagedSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberPagedSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000"})
+    public long memberCount;
+
+    @Param({"NONE", "LOW", "MEDIUM", "HIGH", "POINT"})
+    public Selectivity selectivity;
+
+    @Param({"0", "100", "2000"})
+    public int page;
+
+    @Param({"false", "true"})
+    public boolean readModel;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberSearchCondition condition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--member.search.result-cache.enabled=false",
+            "--member.search.plan-cache.enabled=false",
+            "--member.search.read-model.enabled=" + readModel);
+        BenchmarkContext.seed(context, 1000, memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        condition = selectivity.condition();
+        pageable = PageRequest.of(page, PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchSimple() {
+        return memberRepository.searchSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchComplex() {
+        return memberRepository.searchComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchParallel() {
+        return memberRepository.searchParallel(condition, pageable);
+    }
+}
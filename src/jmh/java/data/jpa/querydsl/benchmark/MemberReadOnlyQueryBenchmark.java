@@ -0,0 +1,90 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAll 과 findAllReadOnly 비교. 읽기-쓰기 트랜잭션 안에서 전체를 읽고 커밋(flush)까지 포함한다.
+ * managed 는 엔티티마다 스냅샷을 만들고 커밋 시 전부 dirty checking 하므로 gc 프로파일러의 gc.alloc.rate.norm(메모리)과
+ * 평균 시간(지연) 모두에서 차이가 드러난다. 읽기 전용 트랜잭션은 세션 자체가 읽기 전용이라 차이가 없으므로 쓰지 않는다.
+ * findAll 자체는 읽기 전용 트랜잭션이지만 바깥 읽기-쓰기 트랜잭션에 참여하므로 managed 경로는 그대로 측정된다.
+ *
+ * ./gradlew jmh -PjmhInclude=MemberReadOnlyQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberReadOnlyQueryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+    private EntityManager em;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkContext.seed(context, 100, memberCount);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void managed(Blackhole blackhole) {
+        transaction.execute(status -> {
+            consume(memberJpaRepository.findAll(), blackhole);
+            em.flush();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void readOnly(Blackhole blackhole) {
+        transaction.execute(status -> {
+            consume(memberJpaRepository.findAllReadOnly(), blackhole);
+            em.flush();
+            return null;
+        });
+    }
+
+    private static void consume(List<Member> members, Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(member.getAge());
+        }
+    }
+}
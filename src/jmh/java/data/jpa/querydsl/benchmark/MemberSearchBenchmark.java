@@ -0,0 +1,73 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberJpaRepository 의 BooleanBuilder(searchByBuilder) 와 where 다중 파라미터(search) 비교.
+ * Throughput 과 SampleTime(p50/p90/p99 등 백분위) 을 함께 측정하고, 할당량은 build.gradle 의 gc profiler 가 보고한다.
+ * 두 경로의 차이를 보기 위해 결과 캐시와 plan cache 는 끈다.
+ *
+ * ./gradlew jmh -PjmhInclude=MemberSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Param({"100000"})
+    public long memberCount;
+
+    @Param({"NONE", "LOW", "MEDIUM", "HIGH", "POINT"})
+    public Selectivity selectivity;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--member.search.result-cache.enabled=false",
+            "--member.search.plan-cache.enabled=false");
+        BenchmarkContext.seed(context, 1000, memberCount);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        condition = selectivity.condition();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberJpaRepository.search(condition);
+    }
+}
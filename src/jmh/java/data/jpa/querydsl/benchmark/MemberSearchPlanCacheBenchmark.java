@@ -0,0 +1,72 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검색 조건 모양별 plan cache 사용 여부에 따른 쿼리 준비 비용 비교.
+ * 결과가 적은 조건을 써서 DB 실행 시간보다 쿼리 구성 비용이 드러나게 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchPlanCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean planCache;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--member.search.plan-cache.enabled=" + planCache);
+        BenchmarkContext.seed(context, 10, 10_000);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        condition = new MemberSearchCondition();
+        condition.setUsername("member42");
+        condition.setTeamName("team2");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(50);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchComplex() {
+        return memberRepository.searchComplex(condition, PageRequest.of(0, 20));
+    }
+}
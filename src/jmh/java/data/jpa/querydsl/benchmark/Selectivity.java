@@ -0,0 +1,43 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+
+/**
+ * {@link BenchmarkContext#seed} 로 만든 데이터(팀 크기 Zipf 1.0, 나이 0~100 균등)에 대한 검색 조건별 선택도.
+ */
+public enum Selectivity {
+    /** 조건 없음, 전체 */
+    NONE,
+    /** 나이 범위만, 약 60% */
+    LOW,
+    /** 가장 큰 팀 하나, 약 13% (1000 팀 기준) */
+    MEDIUM,
+    /** 가장 큰 팀 + 좁은 나이 범위, 1% 미만 */
+    HIGH,
+    /** username 일치, 약 10건 */
+    POINT;
+
+    public MemberSearchCondition condition() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        switch (this) {
+            case LOW:
+                condition.setAgeGoe(20);
+                condition.setAgeLoe(80);
+                break;
+            case MEDIUM:
+                condition.setTeamName("team0");
+                break;
+            case HIGH:
+                condition.setTeamName("team0");
+                condition.setAgeGoe(30);
+                condition.setAgeLoe(35);
+                break;
+            case POINT:
+                condition.setUsername("member7");
+                break;
+            default:
+                break;
+        }
+        return condition;
+    }
+}
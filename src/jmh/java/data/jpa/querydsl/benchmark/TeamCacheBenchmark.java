@@ -0,0 +1,85 @@
+package data.jpa.querydsl.benchmark;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Team 2차 캐시 사용 여부 비교.
+ * lazyTeamAccess 는 Member 엔티티에서 member.getTeam() 을 따라가는 경로로 2차 캐시의 효과가 드러나고,
+ * joinSearch 는 DTO 프로젝션 조인이라 엔티티 캐시를 거치지 않으므로 차이가 없어야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+            "--member.search.result-cache.enabled=false");
+        BenchmarkContext.seed(context, 100, 10_000);
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(12);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void lazyTeamAccess(Blackhole blackhole) {
+        readOnlyTransaction.execute(status -> {
+            for (Member member : memberRepository.findAll(PageRequest.of(0, 200))) {
+                blackhole.consume(member.getTeam().getName());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> joinSearch() {
+        return memberRepository.search(condition);
+    }
+}
@@ -1,45 +1,23 @@
 package data.jpa.querydsl;
 
-import data.jpa.querydsl.entity.Member;
-import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.generator.GeneratorProperties;
+import data.jpa.querydsl.generator.MemberDataGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 
 @Profile("local")
 @Component
 @RequiredArgsConstructor
 public class InitMember {
 
-    private final InitMemberService initMemberService;
+    private final MemberDataGenerator memberDataGenerator;
+    private final GeneratorProperties generatorProperties;
 
     @PostConstruct
     public void init() {
-        initMemberService.init();
-    }
-
-    @Component
-    static class InitMemberService {
-        @PersistenceContext
-        EntityManager em;
-
-
-        @Transactional
-        public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for (int i = 0; i <= 100; i++) {
-                em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
-            }
-        }
+        memberDataGenerator.generate(generatorProperties);
     }
 }
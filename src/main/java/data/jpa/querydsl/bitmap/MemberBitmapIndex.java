@@ -0,0 +1,380 @@
+package data.jpa.querydsl.bitmap;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.event.MemberChangedEvent;
+import data.jpa.querydsl.event.MemberSnapshot;
+import data.jpa.querydsl.event.TeamChangedEvent;
+import data.jpa.querydsl.repository.MemberSearchPreFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 팀별 비트맵과 나이 구간(bucket)별 비트맵으로 teamName/ageGoe/ageLoe 조건의 후보 member_id 를 구한다.
+ * 나이 구간 경계에 걸친 bucket 은 범위 밖 나이도 포함하므로 후보는 결과의 상위 집합이고, 검색 쿼리가 원래 조건으로 다시 거른다.
+ *
+ * 엔티티 변경은 커밋 후 이벤트로 한 건씩 반영한다. 벌크 DML 은 어떤 행이 바뀌었는지 모르므로
+ * 벌크 이벤트가 발생한 순간부터 다시 적재가 끝날 때까지 필터를 쓰지 않는다(null 을 돌려준다).
+ * 아직 커밋되지 않은 자기 변경을 보지 못하므로 읽기-쓰기 트랜잭션 안에서도 쓰지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.search.bitmap.enabled", havingValue = "true")
+public class MemberBitmapIndex implements MemberSearchPreFilter, DisposableBean {
+
+    private static final String SELECT_TEAMS = "select team_id, name from team";
+    private static final String SELECT_MEMBERS = "select member_id, age, team_id from member";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int ageBucketWidth;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reloadMonitor = new Object();
+    private final AtomicLong bulkVersion = new AtomicLong();
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-bitmap-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean stale = true;
+    // lock 으로 보호
+    private Bitmaps current;
+    private List<Consumer<Bitmaps>> changesWhileLoading;
+
+    public MemberBitmapIndex(DataSource dataSource,
+                             @Value("${member.search.bitmap.age-bucket-width:5}") int ageBucketWidth,
+                             @Value("${member.search.bitmap.max-candidates:1000}") int maxCandidates) {
+        if (ageBucketWidth < 1) {
+            throw new IllegalArgumentException("member.search.bitmap.age-bucket-width must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.ageBucketWidth = ageBucketWidth;
+        this.maxCandidates = maxCandidates;
+        this.current = new Bitmaps(ageBucketWidth);
+    }
+
+    @Override
+    public Collection<Long> candidates(MemberSearchCondition condition) {
+        final boolean hasTeam = hasText(condition.getTeamName());
+        final boolean hasAge = condition.getAgeGoe() != null || condition.getAgeLoe() != null;
+        if ((!hasTeam && !hasAge) || stale
+            || (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap candidates = null;
+            if (hasTeam) {
+                candidates = current.team(condition.getTeamName());
+            }
+            if (hasAge && (candidates == null || !candidates.isEmpty())) {
+                final Roaring64NavigableMap ages = current.ages(condition.getAgeGoe(), condition.getAgeLoe());
+                if (candidates == null) {
+                    candidates = ages;
+                } else {
+                    candidates.and(ages);
+                }
+            }
+            if (candidates.getLongCardinality() > maxCandidates) {
+                return null;
+            }
+            final List<Long> ids = new ArrayList<>((int) candidates.getLongCardinality());
+            final LongIterator iterator = candidates.getLongIterator();
+            while (iterator.hasNext()) {
+                ids.add(iterator.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * member/team 을 다시 읽어 비트맵을 새로 만든다. 적재 중에 들어온 엔티티 변경은 새 비트맵에 다시 적용한다.
+     */
+    public void reload() {
+        synchronized (reloadMonitor) {
+            final long version = bulkVersion.get();
+            final long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                changesWhileLoading = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Bitmaps loaded = null;
+            try {
+                loaded = read();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (loaded != null) {
+                        for (Consumer<Bitmaps> change : changesWhileLoading) {
+                            change.accept(loaded);
+                        }
+                        current = loaded;
+                        // 적재 중에 또 벌크 연산이 있었다면 그 결과가 빠졌을 수 있으므로 다음 적재까지 계속 쓰지 않는다
+                        stale = bulkVersion.get() != version;
+                    }
+                    changesWhileLoading = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("member bitmap index loaded in {} ms (teams={}, ageBuckets={}, bytes={})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                loaded.teamCount(), loaded.ageBucketCount(), loaded.sizeInBytes());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        final MemberSnapshot before = event.getBefore();
+        final MemberSnapshot after = event.getAfter();
+        change(bitmaps -> {
+            if (before != null) {
+                bitmaps.remove(before);
+            } else if (event.getType() == MemberChangedEvent.Type.UPDATED) {
+                bitmaps.removeEverywhere(event.getMemberId());
+            }
+            if (after != null) {
+                bitmaps.add(after);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        final Long teamId = event.getTeamId();
+        final String name = event.getType() == TeamChangedEvent.Type.DELETED ? null : event.getNewName();
+        change(bitmaps -> bitmaps.nameTeam(teamId, name));
+    }
+
+    /**
+     * 벌크 이벤트는 SQL 실행 전에 발행되므로 바로 필터를 끄고, 트랜잭션이 끝나면(롤백 포함) 다시 적재한다.
+     */
+    @EventListener
+    public void onBulkChange(BulkChangedEvent event) {
+        bulkVersion.incrementAndGet();
+        stale = true;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleReload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberBitmapIndex.this);
+                scheduleReload();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private Bitmaps read() {
+        final Bitmaps loaded = new Bitmaps(ageBucketWidth);
+        jdbcTemplate.query(SELECT_TEAMS, (RowCallbackHandler) rs -> loaded.nameTeam(rs.getLong(1), rs.getString(2)));
+        jdbcTemplate.query(SELECT_MEMBERS, (RowCallbackHandler) rs -> {
+            final long teamId = rs.getLong(3);
+            loaded.add(rs.getLong(1), rs.getInt(2), rs.wasNull() ? null : teamId);
+        });
+        loaded.runOptimize();
+        return loaded;
+    }
+
+    private void change(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        reloadExecutor.execute(() -> {
+            reloadScheduled.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("member bitmap index reload failed", e);
+            }
+        });
+    }
+
+    /**
+     * 비트맵 묶음. 스레드 안전하지 않으므로 바깥 락 안에서만 쓴다.
+     */
+    private static final class Bitmaps {
+
+        private final int ageBucketWidth;
+        private final Map<Long, Roaring64NavigableMap> byTeam = new HashMap<>();
+        private final TreeMap<Integer, Roaring64NavigableMap> byAgeBucket = new TreeMap<>();
+        private final Map<Long, String> teamNames = new HashMap<>();
+        private final Map<String, Set<Long>> teamIdsByName = new HashMap<>();
+
+        private Bitmaps(int ageBucketWidth) {
+            this.ageBucketWidth = ageBucketWidth;
+        }
+
+        private void nameTeam(Long teamId, String name) {
+            final String previous = name != null ? teamNames.put(teamId, name) : teamNames.remove(teamId);
+            if (previous != null) {
+                final Set<Long> ids = teamIdsByName.get(previous);
+                if (ids != null) {
+                    ids.remove(teamId);
+                    if (ids.isEmpty()) {
+                        teamIdsByName.remove(previous);
+                    }
+                }
+            }
+            if (name != null) {
+                teamIdsByName.computeIfAbsent(name, key -> new HashSet<>()).add(teamId);
+            }
+        }
+
+        private void add(MemberSnapshot member) {
+            add(member.getId(), member.getAge(), member.getTeamId());
+        }
+
+        private void add(long memberId, int age, Long teamId) {
+            if (teamId != null) {
+                byTeam.computeIfAbsent(teamId, key -> new Roaring64NavigableMap()).addLong(memberId);
+            }
+            byAgeBucket.computeIfAbsent(bucket(age), key -> new Roaring64NavigableMap()).addLong(memberId);
+        }
+
+        private void remove(MemberSnapshot member) {
+            if (member.getTeamId() != null) {
+                final Roaring64NavigableMap team = byTeam.get(member.getTeamId());
+                if (team != null) {
+                    team.removeLong(member.getId());
+                }
+            }
+            final Roaring64NavigableMap ages = byAgeBucket.get(bucket(member.getAge()));
+            if (ages != null) {
+                ages.removeLong(member.getId());
+            }
+        }
+
+        /**
+         * 이전 상태를 모르는 update 는 모든 비트맵에서 지운 뒤 다시 넣는다.
+         */
+        private void removeEverywhere(long memberId) {
+            byTeam.values().forEach(bitmap -> bitmap.removeLong(memberId));
+            byAgeBucket.values().forEach(bitmap -> bitmap.removeLong(memberId));
+        }
+
+        private Roaring64NavigableMap team(String name) {
+            final Roaring64NavigableMap result = new Roaring64NavigableMap();
+            for (Long teamId : teamIdsByName.getOrDefault(name, new HashSet<>())) {
+                final Roaring64NavigableMap members = byTeam.get(teamId);
+                if (members != null) {
+                    result.or(members);
+                }
+            }
+            return result;
+        }
+
+        private Roaring64NavigableMap ages(Integer ageGoe, Integer ageLoe) {
+            final Roaring64NavigableMap result = new Roaring64NavigableMap();
+            if (byAgeBucket.isEmpty()) {
+                return result;
+            }
+            final int from = ageGoe != null ? bucket(ageGoe) : byAgeBucket.firstKey();
+            final int to = ageLoe != null ? bucket(ageLoe) : byAgeBucket.lastKey();
+            if (from > to) {
+                return result;
+            }
+            byAgeBucket.subMap(from, true, to, true).values().forEach(result::or);
+            return result;
+        }
+
+        private void runOptimize() {
+            byTeam.values().forEach(Roaring64NavigableMap::runOptimize);
+            byAgeBucket.values().forEach(Roaring64NavigableMap::runOptimize);
+        }
+
+        private int teamCount() {
+            return byTeam.size();
+        }
+
+        private int ageBucketCount() {
+            return byAgeBucket.size();
+        }
+
+        private long sizeInBytes() {
+            long bytes = 0;
+            for (Roaring64NavigableMap bitmap : byTeam.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (Roaring64NavigableMap bitmap : byAgeBucket.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+
+        private int bucket(int age) {
+            return Math.floorDiv(age, ageBucketWidth);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package data.jpa.querydsl.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkOperationReport {
+    private final String operation;
+    private final long affectedRows;
+    private final int chunkCount;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+    private final double avgChunkMillis;
+    private final double maxChunkMillis;
+
+    public BulkOperationReport(String operation, long affectedRows, int chunkCount, long elapsedNanos,
+                               long totalChunkNanos, long maxChunkNanos) {
+        this.operation = operation;
+        this.affectedRows = affectedRows;
+        this.chunkCount = chunkCount;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos > 0 ? affectedRows * 1_000_000_000.0 / elapsedNanos : 0;
+        this.avgChunkMillis = chunkCount > 0 ? totalChunkNanos / 1_000_000.0 / chunkCount : 0;
+        this.maxChunkMillis = maxChunkNanos / 1_000_000.0;
+    }
+}
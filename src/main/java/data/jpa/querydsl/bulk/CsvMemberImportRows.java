@@ -0,0 +1,97 @@
+package data.jpa.querydsl.bulk;
+
+import data.jpa.querydsl.dto.InvalidRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * username,age,teamName 형식의 CSV 를 읽는다. 큰따옴표로 감싼 필드와 "" 이스케이프를 지원하지만
+ * 필드 안의 줄바꿈은 지원하지 않는다. 첫 줄이 username 으로 시작하면 헤더로 보고 건너뛴다.
+ */
+class CsvMemberImportRows implements MemberImportRows {
+
+    private static final String HEADER_FIRST_COLUMN = "username";
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    CsvMemberImportRows(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public MemberImportRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            final List<String> fields = split(line);
+            if (lineNumber == 1 && HEADER_FIRST_COLUMN.equalsIgnoreCase(fields.get(0).trim())) {
+                continue;
+            }
+            if (fields.size() < 2 || fields.size() > 3) {
+                throw new InvalidRequestException("line " + lineNumber + " : expected username,age[,teamName]");
+            }
+            return new MemberImportRow(fields.get(0), age(fields.get(1)), fields.size() == 3 ? fields.get(2) : null);
+        }
+        return null;
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Integer age(String field) {
+        final String value = field.trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("line " + lineNumber + " : age is not a number : " + value);
+        }
+    }
+
+    private List<String> split(String line) {
+        final List<String> fields = new ArrayList<>(3);
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRequestException("line " + lineNumber + " : unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
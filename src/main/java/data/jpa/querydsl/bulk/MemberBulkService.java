@@ -0,0 +1,263 @@
+package data.jpa.querydsl.bulk;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangeScope;
+import data.jpa.querydsl.repository.MemberSearchPlanCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongBinaryOperator;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static data.jpa.querydsl.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건으로 고른 회원을 id 순으로 chunk-size 명씩 끊은 id 구간(chunk) 단위로 벌크 수정/삭제한다.
+ * 구간마다 별도 트랜잭션으로 커밋해서 락 보유 시간과 undo 로그를 작게 유지한다.
+ * 구간을 {@link BulkChangeScope} 로 알려 두므로 읽기 모델 등은 그 구간만 다시 맞춘다.
+ * 벌크 DML 은 영속성 컨텍스트를 거치지 않으므로, 끝난 뒤 호출자의 영속성 컨텍스트에 남아 있는
+ * 대상 엔티티를 새로 읽거나(수정) 분리한다(삭제). 분리/새로 읽은 엔티티의 미반영 변경은 버려진다.
+ */
+@Slf4j
+@Service
+public class MemberBulkService {
+
+    private static final String CHUNK_TIMER = "member.bulk.chunk";
+
+    private final EntityManager em;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readTransaction;
+    private final MeterRegistry registry;
+    private final long chunkSize;
+
+    public MemberBulkService(EntityManager em,
+                             EntityManagerFactory entityManagerFactory,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry registry,
+                             @Value("${member.bulk.chunk-size:1000}") long chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("member.bulk.chunk-size must be positive");
+        }
+        this.em = em;
+        this.entityManagerFactory = entityManagerFactory;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.registry = registry;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkOperationReport adjustAge(MemberSearchCondition condition, int delta) {
+        return execute("adjustAge", condition, false, (from, to) -> queryFactory
+            .update(member)
+            .set(member.age, member.age.add(delta))
+            .where(where(condition, from, to))
+            .execute());
+    }
+
+    public BulkOperationReport reassignTeam(MemberSearchCondition condition, Long teamId) {
+        final Team target = readTransaction.execute(status -> em.find(Team.class, teamId));
+        if (target == null) {
+            throw new InvalidRequestException("team not found : " + teamId);
+        }
+        return execute("reassignTeam", condition, true, (from, to) -> queryFactory
+            .update(member)
+            .set(member.team, target)
+            .where(where(condition, from, to))
+            .execute());
+    }
+
+    public BulkOperationReport delete(MemberSearchCondition condition) {
+        return execute("delete", condition, true, (from, to) -> queryFactory
+            .delete(member)
+            .where(where(condition, from, to))
+            .execute());
+    }
+
+    /**
+     * @param changesTeamMembers Team.members 컬렉션 내용이 바뀌는 연산이면 true
+     * @param chunk              id 구간 [from, to] 를 처리하고 변경 건수를 돌려준다
+     */
+    private BulkOperationReport execute(String operation, MemberSearchCondition condition,
+                                        boolean changesTeamMembers, LongBinaryOperator chunk) {
+        if (MemberSearchPlanCache.shapeOf(condition) == 0) {
+            throw new InvalidRequestException("bulk operation requires at least one search condition");
+        }
+        final long start = System.nanoTime();
+        final Timer chunkTimer = Timer.builder(CHUNK_TIMER)
+            .tag("operation", operation)
+            .register(registry);
+        long affected = 0;
+        int chunkCount = 0;
+        long totalChunkNanos = 0;
+        long maxChunkNanos = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long last = Long.MIN_VALUE;
+        while (true) {
+            final List<Long> ids = nextChunkIds(condition, last);
+            if (ids.isEmpty()) {
+                break;
+            }
+            final long chunkFrom = ids.get(0);
+            final long chunkTo = ids.get(ids.size() - 1);
+            final long chunkStart = System.nanoTime();
+            final Long rows = chunkTransaction.execute(status ->
+                BulkChangeScope.run(chunkFrom, chunkTo, () -> chunk.applyAsLong(chunkFrom, chunkTo)));
+            final long chunkNanos = System.nanoTime() - chunkStart;
+            chunkTimer.record(chunkNanos, TimeUnit.NANOSECONDS);
+            affected += rows != null ? rows : 0;
+            chunkCount++;
+            totalChunkNanos += chunkNanos;
+            maxChunkNanos = Math.max(maxChunkNanos, chunkNanos);
+            minId = Math.min(minId, chunkFrom);
+            maxId = Math.max(maxId, chunkTo);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            last = chunkTo;
+        }
+
+        if (chunkCount > 0) {
+            synchronizePersistenceContext(operation.equals("delete"), changesTeamMembers, minId, maxId);
+        }
+
+        final BulkOperationReport report = new BulkOperationReport(
+            operation, affected, chunkCount, System.nanoTime() - start, totalChunkNanos, maxChunkNanos);
+        log.info("bulk {} finished : {}", operation, report);
+        return report;
+    }
+
+    /**
+     * last 보다 큰 대상 회원 id 를 chunk-size 개까지 순서대로 읽는다. 구간 경계를 실제 id 로 잡으므로
+     * id 가 듬성듬성해도 빈 구간 트랜잭션이 생기지 않는다.
+     */
+    private List<Long> nextChunkIds(MemberSearchCondition condition, long last) {
+        return readTransaction.execute(status -> queryFactory
+            .select(member.id)
+            .from(member)
+            .where(member.id.gt(last).and(ExpressionUtils.allOf(where(condition))))
+            .orderBy(member.id.asc())
+            .limit(chunkSize)
+            .fetch());
+    }
+
+    /**
+     * 호출자에게 열린 영속성 컨텍스트(트랜잭션 또는 OSIV)가 있으면 벌크 결과와 맞춘다.
+     * 조건 일치 여부는 다시 판단하지 않고 id 구간 안의 회원을 모두 대상으로 본다.
+     */
+    private void synchronizePersistenceContext(boolean deleted, boolean changesTeamMembers, long minId, long maxId) {
+        final EntityManagerHolder holder =
+            (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+        if (holder == null) {
+            return;
+        }
+        final EntityManager current = holder.getEntityManager();
+        final List<Member> members = new ArrayList<>();
+        final List<Team> teams = new ArrayList<>();
+        for (Map.Entry<Object, EntityEntry> entry
+            : current.unwrap(SessionImplementor.class).getPersistenceContext().reentrantSafeEntityEntries()) {
+            final Object entity = entry.getKey();
+            if (entity instanceof Member) {
+                final Long id = ((Member) entity).getId();
+                if (id != null && id >= minId && id <= maxId) {
+                    members.add((Member) entity);
+                }
+            } else if (changesTeamMembers && entity instanceof Team
+                && Hibernate.isInitialized(((Team) entity).getMembers())) {
+                teams.add((Team) entity);
+            }
+        }
+
+        for (Member managed : members) {
+            if (deleted) {
+                current.detach(managed);
+            } else {
+                refreshOrDetach(current, managed);
+            }
+        }
+        for (Team managed : teams) {
+            refreshOrDetach(current, managed);
+        }
+    }
+
+    private static void refreshOrDetach(EntityManager current, Object entity) {
+        try {
+            current.refresh(entity);
+        } catch (EntityNotFoundException e) {
+            current.detach(entity);
+        }
+    }
+
+    private static Predicate where(MemberSearchCondition condition, long from, long to) {
+        return member.id.between(from, to).and(ExpressionUtils.allOf(where(condition)));
+    }
+
+    private static Predicate[] where(MemberSearchCondition condition) {
+        return new Predicate[]{
+            usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+            teamNameEq(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe())
+        };
+    }
+
+    private static BooleanExpression usernameEq(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return match == UsernameMatch.EXACT
+            ? member.username.eq(username)
+            : member.username.like(match.likePattern(username), UsernameMatch.LIKE_ESCAPE);
+    }
+
+    /**
+     * 벌크 DML 에는 조인을 쓸 수 없어 팀 이름은 서브쿼리로 팀 id 를 골라 비교한다.
+     */
+    private static BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName)
+            ? member.team.id.in(JPAExpressions.select(team.id).from(team).where(team.name.eq(teamName)))
+            : null;
+    }
+
+    private static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -0,0 +1,48 @@
+package data.jpa.querydsl.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 import 본문 형식. CSV 는 username,age,teamName 순서(헤더 줄은 있어도 되고 없어도 된다),
+ * NDJSON 은 한 줄에 {"username":..,"age":..,"teamName":..} 하나다.
+ */
+public enum MemberImportFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(new MediaType("application", "x-ndjson"));
+
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+
+    MemberImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static MemberImportFormat of(MediaType contentType) {
+        for (MemberImportFormat format : values()) {
+            if (format.mediaType.includes(contentType)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("unsupported import content type : " + contentType);
+    }
+
+    MemberImportRows open(InputStream in, Charset charset, ObjectMapper objectMapper) throws IOException {
+        if (this == CSV) {
+            return new CsvMemberImportRows(new BufferedReader(
+                new InputStreamReader(in, charset != null ? charset : StandardCharsets.UTF_8)));
+        }
+        return new NdjsonMemberImportRows(objectMapper.readerFor(MemberImportRow.class).readValues(in));
+    }
+}
@@ -0,0 +1,22 @@
+package data.jpa.querydsl.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberImportReport {
+    private final long importedRows;
+    private final int createdTeams;
+    private final int commitCount;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+
+    public MemberImportReport(long importedRows, int createdTeams, int commitCount, long elapsedNanos) {
+        this.importedRows = importedRows;
+        this.createdTeams = createdTeams;
+        this.commitCount = commitCount;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos > 0 ? importedRows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+}
@@ -0,0 +1,14 @@
+package data.jpa.querydsl.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportRow {
+    private String username;
+    private Integer age;
+    private String teamName;
+}
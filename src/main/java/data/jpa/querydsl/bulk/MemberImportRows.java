@@ -0,0 +1,20 @@
+package data.jpa.querydsl.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * import 본문을 한 행씩 읽는다. 읽은 행을 쌓아 두지 않으므로 메모리 사용량은 본문 크기와 무관하다.
+ */
+interface MemberImportRows extends Closeable {
+
+    /**
+     * @return 다음 행, 본문이 끝났으면 null
+     */
+    MemberImportRow next() throws IOException;
+
+    /**
+     * 마지막으로 읽은 행의 줄 번호(1부터). 오류 메시지에 쓴다.
+     */
+    long lineNumber();
+}
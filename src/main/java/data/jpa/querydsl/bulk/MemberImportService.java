@@ -0,0 +1,214 @@
+package data.jpa.querydsl.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangeScope;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.repository.TeamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * CSV/NDJSON 본문을 한 행씩 읽어 회원을 넣는다.
+ * StatelessSession 으로 insert 하므로 영속성 컨텍스트가 커지지 않고, batch-size 건씩 JDBC 배치로 실행한다.
+ * commit-interval 건마다 별도 트랜잭션으로 커밋하며, 중간에 실패하면 이미 커밋된 구간은 남는다.
+ * 팀은 시작할 때 읽어 둔 이름 → 팀 map 으로 찾고, 없는 이름이면 새로 만든다.
+ * StatelessSession 은 엔티티 이벤트를 거치지 않지만 StatementInspector 는 거치므로, insert 마다 벌크 이벤트가 나가지 않게
+ * {@link BulkChangeScope#runSilently} 로 감싸고 구간마다 넣은 member id 구간을 실은 {@link BulkChangedEvent} 하나를 발행한다.
+ * 새 팀은 그 구간의 회원과 함께 읽히므로 team 이벤트는 따로 발행하지 않는다. 다만 StatelessSession 의 insert 는
+ * 쿼리 캐시의 테이블 갱신 시각을 남기지 않으므로, 팀을 만든 구간이 커밋되면 팀 이름 조회 캐시 region 을 직접 비운다.
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final String SELECT_TEAMS = "select t.id, t.name from Team t order by t.id";
+
+    private final EntityManager em;
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate chunkTransaction;
+    private final Counter importedRows;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public MemberImportService(EntityManager em,
+                               EntityManagerFactory entityManagerFactory,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher publisher,
+                               MeterRegistry registry,
+                               @Value("${member.import.batch-size:1000}") int batchSize,
+                               @Value("${member.import.commit-interval:50000}") int commitInterval) {
+        if (batchSize < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("member.import.batch-size and commit-interval must be positive");
+        }
+        this.em = em;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.importedRows = Counter.builder("member.import.rows").register(registry);
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    public MemberImportReport importMembers(InputStream in, MemberImportFormat format, Charset charset)
+        throws IOException {
+        final long start = System.nanoTime();
+        // 읽기 전용 트랜잭션은 replica 로 갈 수 있어, 방금 만든 팀이 안 보이면 같은 이름의 팀을 또 만들게 된다
+        final Map<String, Team> teams = chunkTransaction.execute(status -> loadTeams());
+        final int existingTeams = teams.size();
+
+        long imported = 0;
+        int commitCount = 0;
+        try (MemberImportRows rows = format.open(in, charset, objectMapper)) {
+            final Chunk chunk = new Chunk();
+            while (!chunk.finished) {
+                chunkTransaction.execute(status -> {
+                    BulkChangeScope.runSilently(() -> {
+                        try {
+                            insertChunk(rows, teams, chunk);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    return null;
+                });
+                if (chunk.teamsCreated) {
+                    // 없는 이름으로 조회해 캐시된 빈 결과가 커밋 뒤에도 남지 않게 한다
+                    sessionFactory.getCache().evictQueryRegion(TeamRepository.NAME_QUERY_REGION);
+                }
+                if (chunk.rows == 0) {
+                    break;
+                }
+                imported += chunk.rows;
+                commitCount++;
+                importedRows.increment(chunk.rows);
+                log.info("imported members {} ({} rows/sec)", imported, (long) rowsPerSecond(imported, start));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        final MemberImportReport report =
+            new MemberImportReport(imported, teams.size() - existingTeams, commitCount, System.nanoTime() - start);
+        log.info("member import finished : {}", report);
+        return report;
+    }
+
+    /**
+     * 이름이 같은 팀이 여럿이면 id 가 가장 작은 팀으로 연결한다.
+     * map 의 Team 은 id/name 만 채운 분리된 객체로, member insert 시 외래 키 값으로만 쓴다.
+     */
+    private Map<String, Team> loadTeams() {
+        final List<Object[]> rows = em.createQuery(SELECT_TEAMS, Object[].class).getResultList();
+        final Map<String, Team> teams = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            teams.putIfAbsent((String) row[1], team((Long) row[0], (String) row[1]));
+        }
+        return teams;
+    }
+
+    /**
+     * 현재 트랜잭션의 커넥션으로 StatelessSession 을 열어, 커밋/롤백은 스프링 트랜잭션을 따른다.
+     * 벌크 이벤트는 insert 가 모두 실행된 뒤 커밋 전에 발행하므로 읽기 모델은 커밋 직전 flush 에서 그 구간만 맞춘다.
+     */
+    private void insertChunk(MemberImportRows rows, Map<String, Team> teams, Chunk chunk) throws IOException {
+        chunk.rows = 0;
+        chunk.teamsCreated = false;
+        long minMemberId = Long.MAX_VALUE;
+        long maxMemberId = Long.MIN_VALUE;
+        final StatelessSession session = sessionFactory.withStatelessOptions()
+            .connection(em.unwrap(SessionImplementor.class).connection())
+            .openStatelessSession();
+        try {
+            session.setJdbcBatchSize(batchSize);
+            while (chunk.rows < commitInterval) {
+                final MemberImportRow row = rows.next();
+                if (row == null) {
+                    chunk.finished = true;
+                    break;
+                }
+                validate(row, rows.lineNumber());
+                Team team = null;
+                if (hasText(row.getTeamName())) {
+                    team = teams.get(row.getTeamName());
+                    if (team == null) {
+                        team = new Team(row.getTeamName());
+                        session.insert(team);
+                        teams.put(team.getName(), team);
+                        chunk.teamsCreated = true;
+                    }
+                }
+                // Member(username, age, team) 생성자는 team.members 에 추가하므로 map 의 팀이 계속 커진다. setter 로 연결한다
+                final Member member = new Member(row.getUsername(), row.getAge());
+                member.setTeam(team);
+                final long memberId = (Long) session.insert(member);
+                minMemberId = Math.min(minMemberId, memberId);
+                maxMemberId = Math.max(maxMemberId, memberId);
+                chunk.rows++;
+            }
+            // StatelessSession 은 close 할 때 남은 JDBC 배치를 실행하지 않고 버리므로 커밋 전에 직접 실행한다
+            ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+        } finally {
+            session.close();
+        }
+        if (chunk.rows > 0) {
+            publisher.publishEvent(new BulkChangedEvent(BulkChangedEvent.MEMBER_TABLE, minMemberId, maxMemberId));
+        }
+    }
+
+    private static void validate(MemberImportRow row, long lineNumber) {
+        if (!hasText(row.getUsername())) {
+            throw new InvalidRequestException("line " + lineNumber + " : username is required");
+        }
+        if (row.getAge() == null || row.getAge() < 0) {
+            throw new InvalidRequestException("line " + lineNumber + " : age must be zero or positive");
+        }
+    }
+
+    private static Team team(Long id, String name) {
+        final Team team = new Team(name);
+        team.setId(id);
+        return team;
+    }
+
+    private static double rowsPerSecond(long rows, long start) {
+        final long elapsedNanos = System.nanoTime() - start;
+        return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    private static final class Chunk {
+        private long rows;
+        private boolean teamsCreated;
+        private boolean finished;
+    }
+}
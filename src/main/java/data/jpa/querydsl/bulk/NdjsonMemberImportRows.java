@@ -0,0 +1,38 @@
+package data.jpa.querydsl.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import data.jpa.querydsl.dto.InvalidRequestException;
+
+import java.io.IOException;
+
+/**
+ * 한 줄에 JSON 객체 하나씩 있는 NDJSON 을 Jackson 스트리밍 파서로 읽는다.
+ */
+class NdjsonMemberImportRows implements MemberImportRows {
+
+    private final MappingIterator<MemberImportRow> iterator;
+
+    NdjsonMemberImportRows(MappingIterator<MemberImportRow> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public MemberImportRow next() throws IOException {
+        try {
+            return iterator.hasNextValue() ? iterator.nextValue() : null;
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("line " + lineNumber() + " : " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public long lineNumber() {
+        return iterator.getCurrentLocation().getLineNr();
+    }
+
+    @Override
+    public void close() throws IOException {
+        iterator.close();
+    }
+}
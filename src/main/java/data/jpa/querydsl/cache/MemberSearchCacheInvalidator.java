@@ -0,0 +1,49 @@
+package data.jpa.querydsl.cache;
+
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.event.MemberChangedEvent;
+import data.jpa.querydsl.event.TeamChangedEvent;
+import data.jpa.querydsl.repository.MemberSearchCountCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Member/Team 이 바뀌면 검색 캐시를 비운다.
+ * 트랜잭션 안의 변경은 커밋 전까지 다른 트랜잭션에 보이지 않고, 쓰기 트랜잭션은 캐시를 거치지 않으므로
+ * 변경이 몇 건이든 트랜잭션이 끝난 뒤(커밋/롤백) 한 번만 비운다. 트랜잭션 밖의 변경은 바로 비운다.
+ * 이미 조회 중이던 결과는 캐시의 generation 검사로 저장되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchCacheInvalidator {
+
+    private final MemberSearchResultCache resultCache;
+    private final MemberSearchCountCache countCache;
+
+    @EventListener({MemberChangedEvent.class, TeamChangedEvent.class, BulkChangedEvent.class})
+    public void onChange() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberSearchCacheInvalidator.this);
+                invalidate();
+            }
+        });
+    }
+
+    private void invalidate() {
+        resultCache.invalidateAll();
+        countCache.clear();
+    }
+}
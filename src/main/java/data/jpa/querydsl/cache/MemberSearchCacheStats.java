@@ -0,0 +1,15 @@
+package data.jpa.querydsl.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class MemberSearchCacheStats {
+    private final double hitRatio;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long entryCount;
+    private final long estimatedBytes;
+}
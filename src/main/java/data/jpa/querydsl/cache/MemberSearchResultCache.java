@@ -0,0 +1,153 @@
+package data.jpa.querydsl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 검색 조건과 페이지를 키로 검색 결과를 보관하는 W-TinyLFU(Caffeine) 캐시.
+ * 크기는 결과의 추정 메모리 사용량(byte)으로 제한한다.
+ * 쓰기 트랜잭션 안에서는 아직 커밋되지 않은 변경을 봐야 하므로 캐시를 거치지 않는다.
+ * MemberTeamDto 는 변경 가능하므로 캐시에는 복사본을 넣고, 꺼낼 때도 복사본을 돌려줘 호출자끼리 객체를 공유하지 않는다.
+ */
+@Component
+public class MemberSearchResultCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<Key, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberSearchResultCache(
+        @Value("${member.search.result-cache.enabled:true}") boolean enabled,
+        @Value("${member.search.result-cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher(MemberSearchResultCache::weigh)
+            .recordStats()
+            .build();
+    }
+
+    public List<MemberTeamDto> list(String method, MemberSearchCondition condition,
+                                    Supplier<List<MemberTeamDto>> loader) {
+        return get(new Key(method, condition.copy(), 0, -1, null), loader, MemberSearchResultCache::copyOf);
+    }
+
+    public Page<MemberTeamDto> page(String method, MemberSearchCondition condition, Pageable pageable,
+                                    Supplier<Page<MemberTeamDto>> loader) {
+        final Key key = pageable.isPaged()
+            ? new Key(method, condition.copy(), pageable.getOffset(), pageable.getPageSize(), pageable.getSort().toString())
+            : new Key(method, condition.copy(), 0, -1, pageable.getSort().toString());
+        return get(key, loader, MemberSearchResultCache::copyOf);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Supplier<T> loader, UnaryOperator<T> copier) {
+        if (!enabled || inReadWriteTransaction()) {
+            return loader.get();
+        }
+        final Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return copier.apply((T) cached);
+        }
+        // 조회 도중 무효화가 일어났다면 이미 낡은 결과일 수 있으므로 저장하지 않는다
+        final long generationAtLoad = generation.get();
+        final T loaded = loader.get();
+        if (generation.get() == generationAtLoad) {
+            cache.put(key, copier.apply(loaded));
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public MemberSearchCacheStats stats() {
+        final CacheStats stats = cache.stats();
+        final long weightedSize = cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+        return new MemberSearchCacheStats(
+            stats.hitRate(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            cache.estimatedSize(),
+            weightedSize);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "memberSearch");
+        Gauge.builder("member.search.result.cache.bytes", this, resultCache -> resultCache.stats().getEstimatedBytes())
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    private static List<MemberTeamDto> copyOf(List<MemberTeamDto> content) {
+        final List<MemberTeamDto> copy = new ArrayList<>(content.size());
+        for (MemberTeamDto dto : content) {
+            copy.add(new MemberTeamDto(dto.getMemberId(), dto.getUsername(), dto.getAge(), dto.getTeamId(), dto.getTeamName()));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static Page<MemberTeamDto> copyOf(Page<MemberTeamDto> page) {
+        return new PageImpl<>(copyOf(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @SuppressWarnings("unchecked")
+    static int weigh(Key key, Object value) {
+        final List<MemberTeamDto> content = value instanceof Page
+            ? ((Page<MemberTeamDto>) value).getContent()
+            : (List<MemberTeamDto>) value;
+        long bytes = 128;
+        for (MemberTeamDto dto : content) {
+            // 객체 헤더 + 필드, Long 두 개, 문자열 두 개의 대략적인 크기
+            bytes += 40 + 16 + 16 + sizeOf(dto.getUsername()) + sizeOf(dto.getTeamName());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static class Key {
+        private final String method;
+        private final MemberSearchCondition condition;
+        private final long offset;
+        private final int size;
+        private final String sort;
+    }
+}
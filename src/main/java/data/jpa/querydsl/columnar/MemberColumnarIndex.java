@@ -0,0 +1,338 @@
+package data.jpa.querydsl.columnar;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.event.MemberChangedEvent;
+import data.jpa.querydsl.event.MemberSnapshot;
+import data.jpa.querydsl.event.TeamChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * member/team 테이블을 {@link MemberColumns} 로 메모리에 올려 두고 DB 없이 검색한다.
+ * 기동 시 전체를 적재하고, 이후에는 커밋된 엔티티 변경 이벤트로 한 건씩 갱신한다.
+ * 벌크 DML 은 바뀐 행을 알 수 없으므로 커밋 뒤 백그라운드에서 다시 적재하고, 그동안은 이전 내용으로 응답한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.search.columnar.enabled", havingValue = "true")
+public class MemberColumnarIndex implements DisposableBean {
+
+    private static final String SELECT_TEAMS = "select team_id, name from team";
+    private static final String SELECT_MEMBERS = "select member_id, username, age, team_id from member order by member_id";
+    private static final int FETCH_SIZE = 1000;
+    private static final Comparator<String> USERNAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reloadMonitor = new Object();
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-columnar-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // lock 으로 보호
+    private MemberColumns current = new MemberColumns();
+    // 적재 중에 들어온 변경. 적재가 끝나면 새 컬럼에 다시 적용한다. lock 으로 보호
+    private List<Consumer<MemberColumns>> changesWhileLoading;
+
+    public MemberColumnarIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * member/team 을 전부 다시 읽어 교체한다. 읽는 동안에도 이전 내용으로 검색할 수 있다.
+     */
+    public void reload() {
+        synchronized (reloadMonitor) {
+            final long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                changesWhileLoading = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            MemberColumns loaded = null;
+            try {
+                loaded = read();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (loaded != null) {
+                        for (Consumer<MemberColumns> change : changesWhileLoading) {
+                            change.accept(loaded);
+                        }
+                        current = loaded;
+                    }
+                    changesWhileLoading = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("member columnar index loaded in {} ms : {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), stats());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.getType() == MemberChangedEvent.Type.DELETED) {
+            final long memberId = event.getMemberId();
+            change(columns -> columns.removeMember(memberId));
+        } else {
+            final MemberSnapshot after = event.getAfter();
+            change(columns -> columns.putMember(after.getId(), after.getUsername(), after.getAge(), after.getTeamId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        final long teamId = event.getTeamId();
+        if (event.getType() == TeamChangedEvent.Type.DELETED) {
+            change(columns -> columns.removeTeam(teamId));
+        } else {
+            final String name = event.getNewName();
+            change(columns -> columns.putTeam(teamId, name));
+        }
+    }
+
+    /**
+     * 벌크 이벤트는 SQL 실행 전에 발행되므로 커밋된 뒤에 다시 적재한다. 한 트랜잭션의 여러 벌크 연산은 한 번으로 합친다.
+     */
+    @EventListener
+    public void onBulkChange(BulkChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberColumnarIndex.this);
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    scheduleReload();
+                }
+            }
+        });
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return read(columns -> {
+            final List<MemberTeamDto> results = new ArrayList<>();
+            final MemberColumns.Filter filter = columns.filter(condition);
+            if (filter == null) {
+                return results;
+            }
+            for (int row = 0; row < columns.size(); row++) {
+                if (columns.matches(row, filter)) {
+                    results.add(columns.toDto(row));
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * content 와 count 를 같은 시점의 내용에서 한 번에 구한다.
+     */
+    public Page<MemberTeamDto> page(MemberSearchCondition condition, Pageable pageable) {
+        return read(columns -> {
+            final List<MemberTeamDto> content = new ArrayList<>();
+            final MemberColumns.Filter filter = columns.filter(condition);
+            long total = 0;
+            if (filter != null) {
+                final long offset = pageable.getOffset();
+                final int limit = pageable.getPageSize();
+                for (int row = 0; row < columns.size(); row++) {
+                    if (columns.matches(row, filter)) {
+                        if (total >= offset && content.size() < limit) {
+                            content.add(columns.toDto(row));
+                        }
+                        total++;
+                    }
+                }
+            }
+            return new PageImpl<>(content, pageable, total);
+        });
+    }
+
+    /**
+     * cursor 다음부터 정렬 순서대로 최대 limit 건을 돌려준다.
+     */
+    public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, MemberSearchCursor cursor, int limit) {
+        return read(columns -> {
+            final MemberColumns.Filter filter = columns.filter(condition);
+            if (filter == null) {
+                return new ArrayList<>();
+            }
+            switch (cursor.getSortKey()) {
+                case AGE:
+                    return afterByAge(columns, filter, cursor, limit);
+                case USERNAME:
+                    return afterByUsername(columns, filter, cursor, limit);
+                default:
+                    return afterById(columns, filter, cursor, limit);
+            }
+        });
+    }
+
+    public MemberColumnarIndexStats stats() {
+        return read(MemberColumns::stats);
+    }
+
+    @Override
+    public void destroy() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private static List<MemberTeamDto> afterById(MemberColumns columns, MemberColumns.Filter filter,
+                                                 MemberSearchCursor cursor, int limit) {
+        final List<MemberTeamDto> results = new ArrayList<>();
+        final int start = cursor.isFirst() ? 0 : columns.rowAfter(cursor.getLastMemberId());
+        for (int row = start; row < columns.size() && results.size() < limit; row++) {
+            if (columns.matches(row, filter)) {
+                results.add(columns.toDto(row));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 행은 id 순이므로 (age, 행 번호) 를 long 하나로 묶어 정렬하면 (age, id) 순이 된다.
+     */
+    private static List<MemberTeamDto> afterByAge(MemberColumns columns, MemberColumns.Filter filter,
+                                                  MemberSearchCursor cursor, int limit) {
+        final int lastAge = cursor.isFirst() ? 0 : Integer.parseInt(cursor.getLastValue());
+        long[] keys = new long[64];
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (!columns.matches(row, filter)) {
+                continue;
+            }
+            final int age = columns.ageAt(row);
+            if (!cursor.isFirst()
+                && (age < lastAge || (age == lastAge && columns.idAt(row) <= cursor.getLastMemberId()))) {
+                continue;
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            keys[count++] = ((long) age << 32) | row;
+        }
+        Arrays.sort(keys, 0, count);
+        final List<MemberTeamDto> results = new ArrayList<>(Math.min(limit, count));
+        for (int i = 0; i < count && results.size() < limit; i++) {
+            results.add(columns.toDto((int) keys[i]));
+        }
+        return results;
+    }
+
+    private static List<MemberTeamDto> afterByUsername(MemberColumns columns, MemberColumns.Filter filter,
+                                                       MemberSearchCursor cursor, int limit) {
+        final List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (!columns.matches(row, filter)) {
+                continue;
+            }
+            if (!cursor.isFirst()) {
+                // SQL 쪽과 같이 null 이 먼저 온다
+                final int compared = USERNAME_ORDER.compare(columns.usernameAt(row), cursor.getLastValue());
+                if (compared < 0 || (compared == 0 && columns.idAt(row) <= cursor.getLastMemberId())) {
+                    continue;
+                }
+            }
+            rows.add(row);
+        }
+        rows.sort(Comparator.comparing((Integer row) -> columns.usernameAt(row), USERNAME_ORDER)
+            .thenComparingInt(row -> row));
+        final List<MemberTeamDto> results = new ArrayList<>(Math.min(limit, rows.size()));
+        for (int i = 0; i < rows.size() && results.size() < limit; i++) {
+            results.add(columns.toDto(rows.get(i)));
+        }
+        return results;
+    }
+
+    private MemberColumns read() {
+        final MemberColumns loaded = new MemberColumns();
+        jdbcTemplate.query(SELECT_TEAMS, (RowCallbackHandler) rs -> loaded.putTeam(rs.getLong(1), rs.getString(2)));
+        jdbcTemplate.query(SELECT_MEMBERS, (RowCallbackHandler) rs -> {
+            final long teamId = rs.getLong(4);
+            loaded.putMember(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.wasNull() ? null : teamId);
+        });
+        return loaded;
+    }
+
+    private <T> T read(Function<MemberColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(Consumer<MemberColumns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        reloadExecutor.execute(() -> {
+            reloadScheduled.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("member columnar index reload failed", e);
+            }
+        });
+    }
+}
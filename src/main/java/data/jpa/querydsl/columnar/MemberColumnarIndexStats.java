@@ -0,0 +1,36 @@
+package data.jpa.querydsl.columnar;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 컬럼형 인덱스의 크기. 바이트 값은 배열 용량과 객체 헤더를 대략 계산한 추정치다.
+ */
+@Getter
+@ToString
+public class MemberColumnarIndexStats {
+    private final long rows;
+    private final long deletedRows;
+    private final long capacity;
+    private final long distinctUsernames;
+    private final long teams;
+    private final long columnBytes;
+    private final long teamBytes;
+    private final long dictionaryBytes;
+    private final long estimatedBytes;
+    private final double bytesPerRow;
+
+    public MemberColumnarIndexStats(long rows, long deletedRows, long capacity, long distinctUsernames, long teams,
+                                    long columnBytes, long teamBytes, long dictionaryBytes) {
+        this.rows = rows;
+        this.deletedRows = deletedRows;
+        this.capacity = capacity;
+        this.distinctUsernames = distinctUsernames;
+        this.teams = teams;
+        this.columnBytes = columnBytes;
+        this.teamBytes = teamBytes;
+        this.dictionaryBytes = dictionaryBytes;
+        this.estimatedBytes = columnBytes + teamBytes + dictionaryBytes;
+        this.bytesPerRow = rows > 0 ? (double) estimatedBytes / rows : 0;
+    }
+}
@@ -0,0 +1,62 @@
+package data.jpa.querydsl.columnar;
+
+import data.jpa.querydsl.dto.MemberCursorPage;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.metrics.MemberQueryMetrics;
+import data.jpa.querydsl.repository.CustomMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * {@link MemberColumnarIndex} 로 검색하는 CustomMemberRepository 구현.
+ * 인덱스가 메모리에 있어 content/count 를 나눠 실행할 필요가 없으므로 페이징 메서드는 모두 같은 방식으로 동작한다.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.search.columnar.enabled", havingValue = "true")
+public class MemberColumnarRepository implements CustomMemberRepository {
+
+    private static final String METRIC_NAME = "MemberColumnarRepository";
+
+    private final MemberColumnarIndex index;
+    private final MemberQueryMetrics metrics;
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return metrics.record(METRIC_NAME, "search", condition, () -> index.search(condition));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchSimple(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchSimple", condition, () -> index.page(condition, pageable));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchComplex(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchComplex", condition, () -> index.page(condition, pageable));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchParallel(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchParallel", condition, () -> index.page(condition, pageable));
+    }
+
+    @Override
+    public MemberCursorPage searchByCursor(MemberSearchCondition condition, MemberSearchCursor cursor, int size) {
+        return metrics.record(METRIC_NAME, "searchByCursor", condition, () -> {
+            final List<MemberTeamDto> results = index.searchAfter(condition, cursor, size + 1);
+            if (results.size() <= size) {
+                return new MemberCursorPage(results, null);
+            }
+            final List<MemberTeamDto> content = results.subList(0, size);
+            return new MemberCursorPage(content, cursor.next(content.get(size - 1)).encode());
+        });
+    }
+}
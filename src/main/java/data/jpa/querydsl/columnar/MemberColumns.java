@@ -0,0 +1,248 @@
+package data.jpa.querydsl.columnar;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원을 컬럼별 원시 타입 배열에 member_id 오름차순으로 저장한다.
+ * username 과 팀 이름은 사전 코드로, 팀은 슬롯 번호로 저장해서 팀 이름이 바뀌어도 슬롯 하나만 고치면 된다.
+ * 삭제는 표시만 해 두고 일정 비율이 넘으면 압축한다. 스레드 안전하지 않으므로 {@link MemberColumnarIndex} 의 락 안에서만 쓴다.
+ */
+final class MemberColumns {
+
+    static final int NO_TEAM = -1;
+
+    private static final int DELETED = -2;
+    private static final int ANY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACT_DELETED = 1024;
+    // 팀 id -> 슬롯 HashMap 엔트리 대략적인 값
+    private static final int TEAM_ENTRY_OVERHEAD_BYTES = 64;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] usernameCodes = new int[INITIAL_CAPACITY];
+    private int[] teamSlots = new int[INITIAL_CAPACITY];
+    private int size;
+    private int deletedCount;
+
+    private final StringDictionary usernames = new StringDictionary();
+    private final StringDictionary teamNames = new StringDictionary();
+    private final Map<Long, Integer> teamSlotById = new HashMap<>();
+    private long[] slotTeamIds = new long[16];
+    private int[] slotNameCodes = new int[16];
+    private int teamCount;
+
+    void putTeam(long teamId, String name) {
+        slotNameCodes[teamSlot(teamId)] = teamNames.encode(name);
+    }
+
+    /**
+     * 삭제된 팀을 가리키는 회원이 남아 있을 수 있으므로 슬롯은 두고 이름만 지운다.
+     */
+    void removeTeam(long teamId) {
+        final Integer slot = teamSlotById.get(teamId);
+        if (slot != null) {
+            slotNameCodes[slot] = StringDictionary.ABSENT;
+        }
+    }
+
+    void putMember(long id, String username, int age, Long teamId) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+            row = -row - 1;
+            insertRow(row);
+            ids[row] = id;
+        } else if (usernameCodes[row] == DELETED) {
+            deletedCount--;
+        }
+        ages[row] = age;
+        usernameCodes[row] = usernames.encode(username);
+        teamSlots[row] = teamId != null ? teamSlot(teamId) : NO_TEAM;
+    }
+
+    void removeMember(long id) {
+        final int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0 || usernameCodes[row] == DELETED) {
+            return;
+        }
+        usernameCodes[row] = DELETED;
+        deletedCount++;
+        if (deletedCount >= MIN_COMPACT_DELETED && deletedCount > size / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * 조건을 사전 코드로 바꾼다. 사전에 없는 username/팀 이름이면 맞는 행이 없으므로 null 을 돌려준다.
+     */
+    Filter filter(MemberSearchCondition condition) {
+        final Filter filter = new Filter();
+        final String username = condition.getUsername();
+        final UsernameMatch usernameMatch = condition.getUsernameMatch();
+        if (hasText(username) && usernameMatch == UsernameMatch.EXACT) {
+            filter.usernameCode = usernames.codeOf(username);
+            if (filter.usernameCode == StringDictionary.ABSENT) {
+                return null;
+            }
+        } else if (hasText(username)) {
+            filter.usernameCodes = usernames.codesMatching(value -> usernameMatch.matches(username, value));
+            if (filter.usernameCodes.isEmpty()) {
+                return null;
+            }
+        }
+        if (hasText(condition.getTeamName())) {
+            filter.teamNameCode = teamNames.codeOf(condition.getTeamName());
+            if (filter.teamNameCode == StringDictionary.ABSENT) {
+                return null;
+            }
+        }
+        if (condition.getAgeGoe() != null) {
+            filter.ageMin = condition.getAgeGoe();
+        }
+        if (condition.getAgeLoe() != null) {
+            filter.ageMax = condition.getAgeLoe();
+        }
+        return filter;
+    }
+
+    boolean matches(int row, Filter filter) {
+        final int usernameCode = usernameCodes[row];
+        if (usernameCode == DELETED) {
+            return false;
+        }
+        if (filter.usernameCode != ANY && usernameCode != filter.usernameCode) {
+            return false;
+        }
+        if (filter.usernameCodes != null && !filter.usernameCodes.get(usernameCode)) {
+            return false;
+        }
+        if (filter.teamNameCode != ANY) {
+            final int slot = teamSlots[row];
+            if (slot == NO_TEAM || slotNameCodes[slot] != filter.teamNameCode) {
+                return false;
+            }
+        }
+        final int age = ages[row];
+        return age >= filter.ageMin && age <= filter.ageMax;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int liveRows() {
+        return size - deletedCount;
+    }
+
+    int deletedRows() {
+        return deletedCount;
+    }
+
+    /**
+     * id 보다 큰 첫 행의 위치
+     */
+    int rowAfter(long id) {
+        final int row = Arrays.binarySearch(ids, 0, size, id);
+        return row >= 0 ? row + 1 : -row - 1;
+    }
+
+    long idAt(int row) {
+        return ids[row];
+    }
+
+    int ageAt(int row) {
+        return ages[row];
+    }
+
+    String usernameAt(int row) {
+        return usernames.decode(usernameCodes[row]);
+    }
+
+    MemberTeamDto toDto(int row) {
+        final int slot = teamSlots[row];
+        return new MemberTeamDto(
+            ids[row],
+            usernames.decode(usernameCodes[row]),
+            ages[row],
+            slot == NO_TEAM ? null : slotTeamIds[slot],
+            slot == NO_TEAM ? null : teamNames.decode(slotNameCodes[slot]));
+    }
+
+    MemberColumnarIndexStats stats() {
+        final long rowBytes = (long) ids.length * (Long.BYTES + Integer.BYTES * 3);
+        final long teamBytes = (long) slotTeamIds.length * (Long.BYTES + Integer.BYTES)
+            + (long) teamCount * TEAM_ENTRY_OVERHEAD_BYTES;
+        final long dictionaryBytes = usernames.estimatedBytes() + teamNames.estimatedBytes();
+        return new MemberColumnarIndexStats(liveRows(), deletedCount, ids.length,
+            usernames.size(), teamCount, rowBytes, teamBytes, dictionaryBytes);
+    }
+
+    private int teamSlot(long teamId) {
+        final Integer slot = teamSlotById.get(teamId);
+        if (slot != null) {
+            return slot;
+        }
+        if (teamCount == slotTeamIds.length) {
+            slotTeamIds = Arrays.copyOf(slotTeamIds, teamCount * 2);
+            slotNameCodes = Arrays.copyOf(slotNameCodes, teamCount * 2);
+        }
+        final int created = teamCount++;
+        slotTeamIds[created] = teamId;
+        slotNameCodes[created] = StringDictionary.ABSENT;
+        teamSlotById.put(teamId, created);
+        return created;
+    }
+
+    /**
+     * 시퀀스로 만든 id 는 대부분 마지막에 붙으므로 중간 삽입은 드물다.
+     */
+    private void insertRow(int row) {
+        if (size == ids.length) {
+            final int capacity = size + (size >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            usernameCodes = Arrays.copyOf(usernameCodes, capacity);
+            teamSlots = Arrays.copyOf(teamSlots, capacity);
+        }
+        if (row < size) {
+            System.arraycopy(ids, row, ids, row + 1, size - row);
+            System.arraycopy(ages, row, ages, row + 1, size - row);
+            System.arraycopy(usernameCodes, row, usernameCodes, row + 1, size - row);
+            System.arraycopy(teamSlots, row, teamSlots, row + 1, size - row);
+        }
+        size++;
+    }
+
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (usernameCodes[read] == DELETED) {
+                continue;
+            }
+            ids[write] = ids[read];
+            ages[write] = ages[read];
+            usernameCodes[write] = usernameCodes[read];
+            teamSlots[write] = teamSlots[read];
+            write++;
+        }
+        size = write;
+        deletedCount = 0;
+    }
+
+    static final class Filter {
+        private int usernameCode = ANY;
+        private BitSet usernameCodes;
+        private int teamNameCode = ANY;
+        private int ageMin = Integer.MIN_VALUE;
+        private int ageMax = Integer.MAX_VALUE;
+    }
+}
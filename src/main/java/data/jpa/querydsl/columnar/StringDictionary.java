@@ -0,0 +1,66 @@
+package data.jpa.querydsl.columnar;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 문자열을 int 코드로 바꿔 저장한다. 같은 값은 한 번만 저장되고, 코드는 한 번 정해지면 바뀌지 않는다.
+ * 더 이상 쓰이지 않는 값도 지우지 않으므로 다시 적재(reload)할 때 정리된다.
+ */
+final class StringDictionary {
+
+    static final int ABSENT = -1;
+
+    // String 객체, HashMap 엔트리, Integer, 리스트 참조를 합친 대략적인 값 + 문자 수
+    private static final int ENTRY_OVERHEAD_BYTES = 112;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private long characters;
+
+    int encode(String value) {
+        final Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        final int created = values.size();
+        codes.put(value, created);
+        values.add(value);
+        characters += value != null ? value.length() : 0;
+        return created;
+    }
+
+    int codeOf(String value) {
+        final Integer code = codes.get(value);
+        return code != null ? code : ABSENT;
+    }
+
+    /**
+     * 값이 조건에 맞는 코드 집합. 사전 전체를 훑으므로 값의 종류 수에 비례한다.
+     */
+    BitSet codesMatching(Predicate<String> predicate) {
+        final BitSet matching = new BitSet(values.size());
+        for (int code = 0; code < values.size(); code++) {
+            if (predicate.test(values.get(code))) {
+                matching.set(code);
+            }
+        }
+        return matching;
+    }
+
+    String decode(int code) {
+        return code == ABSENT ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    long estimatedBytes() {
+        return (long) values.size() * ENTRY_OVERHEAD_BYTES + characters;
+    }
+}
@@ -0,0 +1,61 @@
+package data.jpa.querydsl.controller;
+
+import data.jpa.querydsl.bulk.BulkOperationReport;
+import data.jpa.querydsl.bulk.MemberBulkService;
+import data.jpa.querydsl.bulk.MemberImportFormat;
+import data.jpa.querydsl.bulk.MemberImportReport;
+import data.jpa.querydsl.bulk.MemberImportService;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberBulkController {
+
+    private final MemberBulkService memberBulkService;
+    private final MemberImportService memberImportService;
+
+    @PostMapping("/v1/members/bulk/age")
+    public BulkOperationReport adjustAge(MemberSearchCondition condition, @RequestParam int delta) {
+        return memberBulkService.adjustAge(condition, delta);
+    }
+
+    @PostMapping("/v1/members/bulk/team")
+    public BulkOperationReport reassignTeam(MemberSearchCondition condition, @RequestParam Long teamId) {
+        return memberBulkService.reassignTeam(condition, teamId);
+    }
+
+    @PostMapping("/v1/members/bulk/delete")
+    public BulkOperationReport delete(MemberSearchCondition condition) {
+        return memberBulkService.delete(condition);
+    }
+
+    /**
+     * 본문을 버퍼에 모으지 않고 요청 스트림에서 바로 읽는다.
+     */
+    @PostMapping(value = "/v1/members/import",
+        consumes = {MemberImportFormat.CSV_VALUE, MemberImportFormat.NDJSON_VALUE})
+    public MemberImportReport importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) throws IOException {
+        return memberImportService.importMembers(body, MemberImportFormat.of(contentType), contentType.getCharset());
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(InvalidRequestException e) {
+        return e.getMessage();
+    }
+}
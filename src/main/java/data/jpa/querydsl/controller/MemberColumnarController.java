@@ -0,0 +1,39 @@
+package data.jpa.querydsl.controller;
+
+import data.jpa.querydsl.columnar.MemberColumnarIndex;
+import data.jpa.querydsl.columnar.MemberColumnarIndexStats;
+import data.jpa.querydsl.columnar.MemberColumnarRepository;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.search.columnar.enabled", havingValue = "true")
+public class MemberColumnarController {
+
+    private final MemberColumnarRepository memberColumnarRepository;
+    private final MemberColumnarIndex memberColumnarIndex;
+
+    @GetMapping("/v6/members")
+    public Page<MemberTeamDto> searchMemberV6(MemberSearchCondition condition, Pageable pageable) {
+        return memberColumnarRepository.searchComplex(condition, pageable);
+    }
+
+    @GetMapping("/members/columnar/stats")
+    public MemberColumnarIndexStats columnarStats() {
+        return memberColumnarIndex.stats();
+    }
+
+    @PostMapping("/members/columnar/reload")
+    public MemberColumnarIndexStats reloadColumnar() {
+        memberColumnarIndex.reload();
+        return memberColumnarIndex.stats();
+    }
+}
@@ -1,29 +1,120 @@
 package data.jpa.querydsl.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import data.jpa.querydsl.cache.MemberSearchCacheStats;
+import data.jpa.querydsl.cache.MemberSearchResultCache;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.dto.MemberBatchSearchResult;
+import data.jpa.querydsl.dto.MemberCursorPage;
+import data.jpa.querydsl.dto.MemberDto;
 import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
 import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.readmodel.MemberTeamViewConsistencyChecker;
+import data.jpa.querydsl.readmodel.ReadModelConsistencyReport;
 import data.jpa.querydsl.repository.MemberJpaRepository;
 import data.jpa.querydsl.repository.MemberRepository;
+import data.jpa.querydsl.service.MemberCsvExportService;
+import data.jpa.querydsl.service.MemberQueryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_CONDITIONS = 100;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String APPLICATION_GZIP_VALUE = "application/gzip";
+    private static final String EXPORT_FILE_NAME = "members.csv.gz";
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberQueryService memberQueryService;
+    private final MemberCsvExportService memberCsvExportService;
+    private final MemberSearchResultCache resultCache;
+    private final MemberTeamViewConsistencyChecker readModelChecker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${member.search.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${member.search.stream.flush-interval:1000}")
+    private int streamFlushInterval;
+
+    @GetMapping("/members")
+    public List<MemberDto> members(@RequestParam(required = false) String username) {
+        return username != null ? memberQueryService.findByUsername(username) : memberQueryService.findAll();
+    }
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.search(condition);
     }
 
+    @PostMapping("/v1/members/batch")
+    public List<MemberBatchSearchResult> searchMemberV1Batch(@RequestBody List<MemberSearchCondition> conditions) {
+        if (conditions.isEmpty() || conditions.size() > MAX_BATCH_CONDITIONS) {
+            throw new InvalidRequestException("conditions must contain 1 to " + MAX_BATCH_CONDITIONS + " entries");
+        }
+        return memberJpaRepository.searchBatch(conditions);
+    }
+
+    @GetMapping(value = "/v1/members/stream", produces = APPLICATION_NDJSON_VALUE)
+    public void searchMemberV1Stream(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        final ObjectWriter writer = objectMapper.writerFor(MemberTeamDto.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            final int[] written = {0};
+            memberJpaRepository.searchStream(condition, streamFetchSize, dto -> {
+                try {
+                    writer.writeValue(generator, dto);
+                    generator.writeRaw('\n');
+                    // 첫 줄은 바로 내보내고, 이후에는 flush-interval 단위로 내보낸다
+                    if (++written[0] == 1 || written[0] % streamFlushInterval == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @GetMapping(value = "/v1/members/export", produces = APPLICATION_GZIP_VALUE)
+    public void exportMemberV1(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_GZIP_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.builder("attachment").filename(EXPORT_FILE_NAME).build().toString());
+        memberCsvExportService.export(condition, response.getOutputStream());
+    }
+
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchSimple(condition, pageable);
@@ -33,4 +124,44 @@ public class MemberController {
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchComplex(condition, pageable);
     }
+
+    @GetMapping("/v4/members")
+    public MemberCursorPage searchMemberV4(MemberSearchCondition condition,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "MEMBER_ID") MemberSearchCursor.SortKey sort,
+                                           @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        final MemberSearchCursor cursor = after != null
+            ? MemberSearchCursor.decode(after)
+            : MemberSearchCursor.first(sort);
+        return memberRepository.searchByCursor(condition, cursor, size);
+    }
+
+    @GetMapping("/v5/members")
+    public Page<MemberTeamDto> searchMemberV5(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchParallel(condition, pageable);
+    }
+
+    @GetMapping("/members/cache/stats")
+    public MemberSearchCacheStats searchCacheStats() {
+        return resultCache.stats();
+    }
+
+    @GetMapping("/members/read-model/consistency")
+    public ReadModelConsistencyReport readModelConsistency() {
+        return readModelChecker.check();
+    }
+
+    @PostMapping("/members/read-model/repair")
+    public ReadModelConsistencyReport repairReadModel() {
+        return readModelChecker.repair();
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(InvalidRequestException e) {
+        return e.getMessage();
+    }
 }
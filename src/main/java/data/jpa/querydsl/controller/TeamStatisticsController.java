@@ -0,0 +1,34 @@
+package data.jpa.querydsl.controller;
+
+import data.jpa.querydsl.stats.TeamStatistics;
+import data.jpa.querydsl.stats.TeamStatisticsAggregator;
+import data.jpa.querydsl.stats.TeamStatisticsVerification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamStatisticsController {
+
+    private final TeamStatisticsAggregator teamStatisticsAggregator;
+
+    @GetMapping("/teams/statistics")
+    public List<TeamStatistics> statistics() {
+        return teamStatisticsAggregator.statistics();
+    }
+
+    @GetMapping("/teams/statistics/verify")
+    public TeamStatisticsVerification verify() {
+        return teamStatisticsAggregator.verify();
+    }
+
+    @PostMapping("/teams/statistics/recompute")
+    public List<TeamStatistics> recompute() {
+        teamStatisticsAggregator.recompute();
+        return teamStatisticsAggregator.statistics();
+    }
+}
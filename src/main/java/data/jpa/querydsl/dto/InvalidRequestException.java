@@ -0,0 +1,15 @@
+package data.jpa.querydsl.dto;
+
+/**
+ * 클라이언트가 보낸 조건, 커서, 본문이 잘못되었을 때 던진다. 컨트롤러는 이 예외만 400으로 응답한다.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
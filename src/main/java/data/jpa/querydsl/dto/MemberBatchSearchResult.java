@@ -0,0 +1,16 @@
+package data.jpa.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MemberBatchSearchResult {
+    private final MemberSearchCondition condition;
+    private final List<MemberTeamDto> content;
+
+    public MemberBatchSearchResult(MemberSearchCondition condition, List<MemberTeamDto> content) {
+        this.condition = condition;
+        this.content = content;
+    }
+}
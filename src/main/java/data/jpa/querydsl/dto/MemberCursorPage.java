@@ -0,0 +1,18 @@
+package data.jpa.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MemberCursorPage {
+    private final List<MemberTeamDto> content;
+    private final String next;
+    private final boolean hasNext;
+
+    public MemberCursorPage(List<MemberTeamDto> content, String next) {
+        this.content = content;
+        this.next = next;
+        this.hasNext = next != null;
+    }
+}
@@ -2,10 +2,37 @@ package data.jpa.querydsl.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
     private String username;
+    private UsernameMatch usernameMatch = UsernameMatch.EXACT;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+
+    public MemberSearchCondition copy() {
+        final MemberSearchCondition copy = new MemberSearchCondition();
+        copy.setUsername(username);
+        copy.setUsernameMatch(usernameMatch);
+        copy.setTeamName(teamName);
+        copy.setAgeGoe(ageGoe);
+        copy.setAgeLoe(ageLoe);
+        return copy;
+    }
+
+    public void setUsernameMatch(UsernameMatch usernameMatch) {
+        this.usernameMatch = usernameMatch != null ? usernameMatch : UsernameMatch.EXACT;
+    }
+
+    /**
+     * 검색 쿼리의 where 조건과 같은 규칙으로 조회 결과 한 건이 이 조건에 맞는지 판단한다.
+     */
+    public boolean matches(MemberTeamDto dto) {
+        return (!hasText(username) || usernameMatch.matches(username, dto.getUsername()))
+            && (!hasText(teamName) || teamName.equals(dto.getTeamName()))
+            && (ageGoe == null || dto.getAge() >= ageGoe)
+            && (ageLoe == null || dto.getAge() <= ageLoe);
+    }
 }
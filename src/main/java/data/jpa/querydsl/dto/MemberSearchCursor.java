@@ -0,0 +1,67 @@
+package data.jpa.querydsl.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 정렬 키, 마지막 회원 id, 마지막 정렬 값을 "키:id:값" 으로 이어 Base64 로 인코딩한다.
+ * 값이 null 이면 마지막 구분자까지 빼고 "키:id" 로만 써서 빈 문자열과 구분한다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberSearchCursor {
+
+    public enum SortKey {
+        MEMBER_ID, AGE, USERNAME
+    }
+
+    private static final String DELIMITER = ":";
+
+    private final SortKey sortKey;
+    private final Long lastMemberId;
+    private final String lastValue;
+
+    public static MemberSearchCursor first(SortKey sortKey) {
+        return new MemberSearchCursor(sortKey, null, null);
+    }
+
+    public boolean isFirst() {
+        return lastMemberId == null;
+    }
+
+    public MemberSearchCursor next(MemberTeamDto last) {
+        switch (sortKey) {
+            case AGE:
+                return new MemberSearchCursor(sortKey, last.getMemberId(), String.valueOf(last.getAge()));
+            case USERNAME:
+                return new MemberSearchCursor(sortKey, last.getMemberId(), last.getUsername());
+            default:
+                return new MemberSearchCursor(sortKey, last.getMemberId(), null);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + DELIMITER + lastMemberId + (lastValue != null ? DELIMITER + lastValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberSearchCursor decode(String token) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] parts = raw.split(DELIMITER, 3);
+            final SortKey sortKey = SortKey.valueOf(parts[0]);
+            final Long lastMemberId = Long.valueOf(parts[1]);
+            final String lastValue = sortKey == SortKey.MEMBER_ID || parts.length < 3 ? null : parts[2];
+            if (sortKey == SortKey.AGE) {
+                Integer.parseInt(lastValue);
+            }
+            return new MemberSearchCursor(sortKey, lastMemberId, lastValue);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("invalid cursor : " + token, e);
+        }
+    }
+}
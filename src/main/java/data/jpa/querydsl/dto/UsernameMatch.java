@@ -0,0 +1,45 @@
+package data.jpa.querydsl.dto;
+
+/**
+ * username 조건을 비교하는 방식. 대소문자를 구분하며 PREFIX, CONTAINS 는 LIKE 로 실행된다.
+ */
+public enum UsernameMatch {
+    EXACT, PREFIX, CONTAINS;
+
+    public static final char LIKE_ESCAPE = '!';
+
+    public boolean matches(String username, String value) {
+        if (value == null) {
+            return false;
+        }
+        switch (this) {
+            case PREFIX:
+                return value.startsWith(username);
+            case CONTAINS:
+                return value.contains(username);
+            default:
+                return value.equals(username);
+        }
+    }
+
+    /**
+     * LIKE_ESCAPE 로 와일드카드를 이스케이프한 LIKE 패턴
+     */
+    public String likePattern(String username) {
+        final StringBuilder pattern = new StringBuilder(username.length() + 2);
+        if (this == CONTAINS) {
+            pattern.append('%');
+        }
+        for (int i = 0; i < username.length(); i++) {
+            final char c = username.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        if (this != EXACT) {
+            pattern.append('%');
+        }
+        return pattern.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package data.jpa.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * 검색용으로 member 와 team 을 미리 조인해 둔 읽기 모델.
+ * JPA 로는 쓰지 않고 MemberTeamViewSynchronizer 가 member/team 변경에 맞춰 갱신한다.
+ * member/team 에 flush 되지 않은 변경이 있으면 이 엔티티를 조회하기 전에 auto flush 되도록 두 테이블에 동기화한다.
+ */
+@Entity
+@Immutable
+@Synchronize({"member", "team"})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(name = "member_team", indexes = {
+    @Index(name = "idx_member_team_team_name_age", columnList = "team_name, age"),
+    @Index(name = "idx_member_team_username", columnList = "username"),
+    @Index(name = "idx_member_team_age", columnList = "age")
+})
+public class MemberTeamView {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+    private String username;
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+}
@@ -0,0 +1,54 @@
+package data.jpa.querydsl.event;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 벌크 DML 이 건드리는 member id 구간을 스레드별로 알려 둔다.
+ * 이 범위 안에서 실행되는 member 벌크 DML 은 구간을 실은 {@link BulkChangedEvent} 로 발행된다.
+ * 구간을 DML 이 끝난 뒤에야 아는 호출자는 {@link #runSilently} 로 감싸고 이벤트를 직접 발행한다.
+ */
+public final class BulkChangeScope {
+
+    private static final ThreadLocal<long[]> RANGE = new ThreadLocal<>();
+    private static final long[] SILENT = new long[0];
+
+    private BulkChangeScope() {
+    }
+
+    public static long run(long minMemberId, long maxMemberId, LongSupplier work) {
+        return within(new long[]{minMemberId, maxMemberId}, work);
+    }
+
+    /**
+     * work 안에서 실행되는 member/team DML 은 {@link BulkChangedEvent} 를 발행하지 않는다.
+     */
+    public static void runSilently(Runnable work) {
+        within(SILENT, () -> {
+            work.run();
+            return 0;
+        });
+    }
+
+    private static long within(long[] range, LongSupplier work) {
+        final long[] previous = RANGE.get();
+        RANGE.set(range);
+        try {
+            return work.getAsLong();
+        } finally {
+            if (previous != null) {
+                RANGE.set(previous);
+            } else {
+                RANGE.remove();
+            }
+        }
+    }
+
+    static long[] current() {
+        final long[] range = RANGE.get();
+        return range != SILENT ? range : null;
+    }
+
+    static boolean isSilent() {
+        return RANGE.get() == SILENT;
+    }
+}
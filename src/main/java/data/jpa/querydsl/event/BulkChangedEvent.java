@@ -0,0 +1,43 @@
+package data.jpa.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 엔티티 단위가 아닌 벌크 DML(Querydsl update/delete, JDBC 배치 등)이 member 나 team 테이블에 실행될 때 발행된다.
+ * Hibernate 벌크 연산은 SQL 실행 직전에 발행되므로, 변경 결과가 필요한 쪽은 트랜잭션 완료 이후에 반영해야 한다.
+ * 바뀐 member 가 id 구간 [minMemberId, maxMemberId] 안에 있다고 알 수 있으면 구간을 함께 싣는다.
+ */
+@Getter
+@ToString
+public class BulkChangedEvent {
+
+    public static final String MEMBER_TABLE = "member";
+    public static final String TEAM_TABLE = "team";
+
+    private final String table;
+    private final Long minMemberId;
+    private final Long maxMemberId;
+
+    public BulkChangedEvent(String table) {
+        this(table, null, null);
+    }
+
+    public BulkChangedEvent(String table, Long minMemberId, Long maxMemberId) {
+        this.table = table;
+        this.minMemberId = minMemberId;
+        this.maxMemberId = maxMemberId;
+    }
+
+    public boolean isMemberTable() {
+        return MEMBER_TABLE.equals(table);
+    }
+
+    public boolean isTeamTable() {
+        return TEAM_TABLE.equals(table);
+    }
+
+    public boolean hasMemberIdRange() {
+        return isMemberTable() && minMemberId != null && maxMemberId != null;
+    }
+}
@@ -0,0 +1,75 @@
+package data.jpa.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 엔티티 단위 DML 밖에서 member/team 테이블을 바꾸는 SQL(벌크 update/delete 등)을 찾아 {@link BulkChangedEvent} 를 발행한다.
+ * {@link BulkChangeScope} 로 member id 구간이 알려져 있으면 이벤트에 구간을 싣는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkStatementInspector implements StatementInspector {
+
+    private final transient ApplicationEventPublisher publisher;
+
+    @Override
+    public String inspect(String sql) {
+        if (!EntityWriteScope.isActive() && !BulkChangeScope.isSilent()) {
+            final String table = modifiedTable(sql);
+            final long[] range = BulkChangeScope.current();
+            if (BulkChangedEvent.MEMBER_TABLE.equals(table) && range != null) {
+                publisher.publishEvent(new BulkChangedEvent(table, range[0], range[1]));
+            } else if (BulkChangedEvent.MEMBER_TABLE.equals(table) || BulkChangedEvent.TEAM_TABLE.equals(table)) {
+                publisher.publishEvent(new BulkChangedEvent(table));
+            }
+        }
+        return sql;
+    }
+
+    static String modifiedTable(String sql) {
+        int pos = skipCommentsAndWhitespace(sql, 0);
+        if (startsWith(sql, pos, "update")) {
+            pos += "update".length();
+        } else if (startsWith(sql, pos, "delete")) {
+            pos = skipCommentsAndWhitespace(sql, pos + "delete".length());
+            if (startsWith(sql, pos, "from")) {
+                pos += "from".length();
+            }
+        } else if (startsWith(sql, pos, "insert")) {
+            pos = skipCommentsAndWhitespace(sql, pos + "insert".length());
+            if (!startsWith(sql, pos, "into")) {
+                return null;
+            }
+            pos += "into".length();
+        } else {
+            return null;
+        }
+        pos = skipCommentsAndWhitespace(sql, pos);
+        int end = pos;
+        while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+            end++;
+        }
+        return sql.substring(pos, end).toLowerCase();
+    }
+
+    private static int skipCommentsAndWhitespace(String sql, int pos) {
+        while (pos < sql.length()) {
+            if (Character.isWhitespace(sql.charAt(pos))) {
+                pos++;
+            } else if (sql.startsWith("/*", pos)) {
+                final int end = sql.indexOf("*/", pos + 2);
+                pos = end < 0 ? sql.length() : end + 2;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean startsWith(String sql, int pos, String keyword) {
+        return sql.regionMatches(true, pos, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,150 @@
+package data.jpa.querydsl.event;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member/Team 의 엔티티 단위 변경을 Hibernate 이벤트로 받아 스프링 이벤트로 다시 발행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeEventListener implements Integrator,
+    PreInsertEventListener, PostInsertEventListener,
+    PreUpdateEventListener, PostUpdateEventListener,
+    PreDeleteEventListener, PostDeleteEventListener {
+
+    private final transient ApplicationEventPublisher publisher;
+
+    @Override
+    public void integrate(Metadata metadata,
+                          SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        final EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, this);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        EntityWriteScope.enter();
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        EntityWriteScope.enter();
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        EntityWriteScope.enter();
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityWriteScope.exit();
+        final Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            publisher.publishEvent(MemberChangedEvent.inserted(snapshotOf((Member) entity)));
+        } else if (entity instanceof Team) {
+            final Team team = (Team) entity;
+            publisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.Type.INSERTED, team.getId(), null, team.getName()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityWriteScope.exit();
+        final Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            final MemberSnapshot before = event.getOldState() != null
+                ? snapshotOf((Long) event.getId(), event.getOldState(), event.getPersister())
+                : null;
+            publisher.publishEvent(MemberChangedEvent.updated(before, snapshotOf((Member) entity)));
+        } else if (entity instanceof Team) {
+            final Team team = (Team) entity;
+            final String oldName = event.getOldState() != null
+                ? (String) event.getOldState()[propertyIndex(event.getPersister(), "name")]
+                : null;
+            publisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.Type.UPDATED, team.getId(), oldName, team.getName()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityWriteScope.exit();
+        final Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            publisher.publishEvent(MemberChangedEvent.deleted(
+                snapshotOf((Long) event.getId(), event.getDeletedState(), event.getPersister())));
+        } else if (entity instanceof Team) {
+            final Team team = (Team) entity;
+            publisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.Type.DELETED, team.getId(), team.getName(), null));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private static MemberSnapshot snapshotOf(Member member) {
+        return new MemberSnapshot(member.getId(), member.getUsername(), member.getAge(), teamIdOf(member.getTeam()));
+    }
+
+    private static MemberSnapshot snapshotOf(Long id, Object[] state, EntityPersister persister) {
+        return new MemberSnapshot(
+            id,
+            (String) state[propertyIndex(persister, "username")],
+            (Integer) state[propertyIndex(persister, "age")],
+            teamIdOf((Team) state[propertyIndex(persister, "team")]));
+    }
+
+    private static int propertyIndex(EntityPersister persister, String propertyName) {
+        return persister.getEntityMetamodel().getPropertyIndex(propertyName);
+    }
+
+    static Long teamIdOf(Team team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team.getId();
+    }
+}
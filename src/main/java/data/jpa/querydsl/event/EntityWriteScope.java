@@ -0,0 +1,51 @@
+package data.jpa.querydsl.event;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate 가 엔티티 단위 DML 을 실행하는 중인지 스레드별로 추적한다.
+ * 이 범위 밖에서 실행되는 member/team DML 은 벌크 연산으로 본다.
+ */
+final class EntityWriteScope {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final Object RESET_KEY = new Object();
+
+    private EntityWriteScope() {
+    }
+
+    static void enter() {
+        DEPTH.get()[0]++;
+        registerReset();
+    }
+
+    static void exit() {
+        final int[] depth = DEPTH.get();
+        if (depth[0] > 0) {
+            depth[0]--;
+        }
+    }
+
+    static boolean isActive() {
+        return DEPTH.get()[0] > 0;
+    }
+
+    /**
+     * 엔티티 DML 도중 예외가 나면 exit 가 호출되지 않으므로 트랜잭션이 끝날 때 상태를 비운다.
+     */
+    private static void registerReset() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(RESET_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(RESET_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESET_KEY);
+                DEPTH.remove();
+            }
+        });
+    }
+}
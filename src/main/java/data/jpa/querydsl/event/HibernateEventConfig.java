@@ -0,0 +1,34 @@
+package data.jpa.querydsl.event;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class HibernateEventConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer entityChangeEventCustomizer(List<Integrator> integrators,
+                                                                     List<StatementInspector> statementInspectors) {
+        // Hibernate 는 StatementInspector 를 하나만 받으므로 등록된 빈을 순서대로 거치게 묶는다
+        final StatementInspector compositeInspector = sql -> {
+            String inspected = sql;
+            for (StatementInspector statementInspector : statementInspectors) {
+                inspected = statementInspector.inspect(inspected);
+            }
+            return inspected;
+        };
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, compositeInspector);
+            hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> integrators);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package data.jpa.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Member 엔티티의 insert/update/delete 가 실행된 직후 같은 스레드에서 발행된다.
+ * update 의 before 는 Hibernate 가 이전 상태를 알지 못하면 null 일 수 있다.
+ */
+@Getter
+@ToString
+public class MemberChangedEvent {
+
+    public enum Type {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final MemberSnapshot before;
+    private final MemberSnapshot after;
+
+    private MemberChangedEvent(Type type, MemberSnapshot before, MemberSnapshot after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static MemberChangedEvent inserted(MemberSnapshot after) {
+        return new MemberChangedEvent(Type.INSERTED, null, after);
+    }
+
+    public static MemberChangedEvent updated(MemberSnapshot before, MemberSnapshot after) {
+        return new MemberChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static MemberChangedEvent deleted(MemberSnapshot before) {
+        return new MemberChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Long getMemberId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,14 @@
+package data.jpa.querydsl.event;
+
+import lombok.Value;
+
+/**
+ * 변경 이벤트에 담기는 Member 의 한 시점 상태. 엔티티와 달리 변경되지 않는다.
+ */
+@Value
+public class MemberSnapshot {
+    Long id;
+    String username;
+    int age;
+    Long teamId;
+}
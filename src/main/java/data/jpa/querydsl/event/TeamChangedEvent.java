@@ -0,0 +1,32 @@
+package data.jpa.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Team 엔티티의 insert/update/delete 가 실행된 직후 같은 스레드에서 발행된다.
+ */
+@Getter
+@ToString
+public class TeamChangedEvent {
+
+    public enum Type {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long teamId;
+    private final String oldName;
+    private final String newName;
+
+    public TeamChangedEvent(Type type, Long teamId, String oldName, String newName) {
+        this.type = type;
+        this.teamId = teamId;
+        this.oldName = oldName;
+        this.newName = newName;
+    }
+
+    public boolean isRenamed() {
+        return type == Type.UPDATED && (oldName == null ? newName != null : !oldName.equals(newName));
+    }
+}
@@ -0,0 +1,20 @@
+package data.jpa.querydsl.generator;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class GenerationReport {
+    private final long teamCount;
+    private final long memberCount;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+
+    public GenerationReport(long teamCount, long memberCount, long elapsedMillis) {
+        this.teamCount = teamCount;
+        this.memberCount = memberCount;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? (teamCount + memberCount) * 1000.0 / elapsedMillis : 0;
+    }
+}
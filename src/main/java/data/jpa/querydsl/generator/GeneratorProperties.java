@@ -0,0 +1,30 @@
+package data.jpa.querydsl.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "generator")
+public class GeneratorProperties {
+    private int teamCount = 2;
+    private long memberCount = 101;
+    private int batchSize = 1000;
+    private int commitInterval = 50_000;
+    private int ageMin = 0;
+    private int ageMax = 100;
+    /**
+     * 0 이면 균등 분포, 클수록 낮은 나이에 몰린다.
+     */
+    private double ageSkew = 0;
+    /**
+     * 팀 크기의 Zipf 지수. 0 이면 모든 팀이 비슷한 크기.
+     */
+    private double teamSizeSkew = 0;
+    /**
+     * 서로 다른 username 의 개수. 0 이면 member 마다 고유하다.
+     */
+    private int usernameCardinality = 0;
+    private long seed = 42;
+}
@@ -0,0 +1,108 @@
+package data.jpa.querydsl.generator;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Random;
+
+/**
+ * 부하 테스트용 Team/Member 데이터를 대량으로 만든다.
+ * batch-size 건마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게 하고,
+ * JDBC 배치로 insert 왕복 횟수를 줄인다. id 할당 방식은 엔티티 매핑(id.sequence.*)을 따른다.
+ * commit-interval 건마다 트랜잭션을 나눠 커밋한다.
+ */
+@Slf4j
+@Component
+public class MemberDataGenerator {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberDataGenerator(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public GenerationReport generate(GeneratorProperties properties) {
+        final long start = System.nanoTime();
+        final Random random = new Random(properties.getSeed());
+
+        final long[] teamIds = transactionTemplate.execute(status -> persistTeams(properties));
+
+        final ZipfDistribution teamDistribution =
+            new ZipfDistribution(properties.getTeamCount(), properties.getTeamSizeSkew());
+        long persisted = 0;
+        while (persisted < properties.getMemberCount()) {
+            final long from = persisted;
+            final long to = Math.min(properties.getMemberCount(), from + properties.getCommitInterval());
+            transactionTemplate.execute(status -> {
+                persistMembers(properties, from, to, teamIds, teamDistribution, random);
+                return null;
+            });
+            persisted = to;
+            log.info("generated members {}/{} ({} rows/sec)",
+                persisted, properties.getMemberCount(), (long) rowsPerSecond(persisted, start));
+        }
+
+        final GenerationReport report = new GenerationReport(
+            teamIds.length, persisted, (System.nanoTime() - start) / 1_000_000);
+        log.info("data generation finished : {}", report);
+        return report;
+    }
+
+    private long[] persistTeams(GeneratorProperties properties) {
+        em.unwrap(Session.class).setJdbcBatchSize(properties.getBatchSize());
+        final long[] teamIds = new long[properties.getTeamCount()];
+        for (int i = 0; i < teamIds.length; i++) {
+            final Team team = new Team("team" + i);
+            em.persist(team);
+            teamIds[i] = team.getId();
+            if ((i + 1) % properties.getBatchSize() == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        return teamIds;
+    }
+
+    private void persistMembers(GeneratorProperties properties, long from, long to,
+                                long[] teamIds, ZipfDistribution teamDistribution, Random random) {
+        em.unwrap(Session.class).setJdbcBatchSize(properties.getBatchSize());
+        for (long i = from; i < to; i++) {
+            final Member member = new Member(username(properties, i, random), age(properties, random));
+            if (teamIds.length > 0) {
+                // getReference 로 프록시만 연결하고, 양방향 컬렉션은 건드리지 않아 팀을 로딩하지 않는다
+                member.setTeam(em.getReference(Team.class, teamIds[teamDistribution.sample(random)]));
+            }
+            em.persist(member);
+            if ((i + 1) % properties.getBatchSize() == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+    }
+
+    private static String username(GeneratorProperties properties, long index, Random random) {
+        final int cardinality = properties.getUsernameCardinality();
+        return "member" + (cardinality > 0 ? random.nextInt(cardinality) : index);
+    }
+
+    private static int age(GeneratorProperties properties, Random random) {
+        final int range = properties.getAgeMax() - properties.getAgeMin() + 1;
+        final double u = Math.pow(random.nextDouble(), 1 + properties.getAgeSkew());
+        return properties.getAgeMin() + Math.min(range - 1, (int) (u * range));
+    }
+
+    private static double rowsPerSecond(long rows, long start) {
+        final long elapsedNanos = System.nanoTime() - start;
+        return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+}
@@ -0,0 +1,30 @@
+package data.jpa.querydsl.generator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 0 ~ n-1 사이 값을 P(k) ∝ 1 / (k + 1)^exponent 로 뽑는다. exponent 가 0 이면 균등 분포.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        final int k = index >= 0 ? index : -index - 1;
+        return Math.min(k, cumulative.length - 1);
+    }
+}
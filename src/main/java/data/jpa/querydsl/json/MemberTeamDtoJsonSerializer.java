@@ -0,0 +1,53 @@
+package data.jpa.querydsl.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * MemberTeamDto 를 리플렉션 없이 필드 순서대로 바로 쓴다. 출력은 기본 BeanSerializer 와 같다.
+ * 필드 이름은 미리 인코딩해 둔 SerializedString 을 써서 요청마다 다시 인코딩하지 않는다.
+ */
+@JsonComponent
+public class MemberTeamDtoJsonSerializer extends StdSerializer<MemberTeamDto> {
+
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberTeamDtoJsonSerializer() {
+        super(MemberTeamDto.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(MEMBER_ID);
+        writeNumber(gen, value.getMemberId());
+        gen.writeFieldName(USERNAME);
+        gen.writeString(value.getUsername());
+        gen.writeFieldName(AGE);
+        gen.writeNumber(value.getAge());
+        gen.writeFieldName(TEAM_ID);
+        writeNumber(gen, value.getTeamId());
+        gen.writeFieldName(TEAM_NAME);
+        gen.writeString(value.getTeamName());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
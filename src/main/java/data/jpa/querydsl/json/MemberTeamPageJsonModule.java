@@ -0,0 +1,43 @@
+package data.jpa.querydsl.json;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+/**
+ * 원소 타입이 MemberTeamDto 로 선언된 Page 에만 {@link PageJsonSerializer} 를 쓴다.
+ * 컨트롤러 반환 타입처럼 제네릭 타입을 알 수 있을 때만 걸리고, 다른 Page 나 원소 타입을 모르는 Page 는 기본 직렬화를 따른다.
+ */
+@Component
+public class MemberTeamPageJsonModule extends SimpleModule {
+
+    public MemberTeamPageJsonModule() {
+        super(MemberTeamPageJsonModule.class.getSimpleName());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new MemberTeamPageSerializers());
+    }
+
+    private static final class MemberTeamPageSerializers extends Serializers.Base {
+
+        private final PageJsonSerializer pageSerializer = new PageJsonSerializer();
+
+        @Override
+        public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+            if (!type.isTypeOrSubTypeOf(Page.class)) {
+                return null;
+            }
+            final JavaType[] parameters = type.findTypeParameters(Page.class);
+            return parameters.length == 1 && parameters[0].hasRawClass(MemberTeamDto.class) ? pageSerializer : null;
+        }
+    }
+}
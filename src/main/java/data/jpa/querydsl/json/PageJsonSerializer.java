@@ -0,0 +1,61 @@
+package data.jpa.querydsl.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Page 를 {"content":[..],"number":0,"size":20,"totalElements":..,"totalPages":..} 로만 쓴다.
+ * PageImpl 기본 직렬화가 함께 내보내던 pageable, sort, first/last/empty 같은 중복 정보와
+ * 그 getter 들이 만드는 중간 객체를 없앤다. 원소 serializer 는 타입이 바뀔 때만 다시 찾는다.
+ * 모든 Page 에 걸면 다른 Page 응답의 모양까지 바뀌므로 {@link MemberTeamPageJsonModule} 이 Page&lt;MemberTeamDto&gt; 에만 건다.
+ */
+public class PageJsonSerializer extends StdSerializer<Page<?>> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    @SuppressWarnings("unchecked")
+    public PageJsonSerializer() {
+        super((Class<Page<?>>) (Class<?>) Page.class);
+    }
+
+    @Override
+    public void serialize(Page<?> page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(page);
+        gen.writeFieldName(CONTENT);
+        gen.writeStartArray(page.getNumberOfElements());
+        Class<?> elementType = null;
+        JsonSerializer<Object> elementSerializer = null;
+        for (Object element : page.getContent()) {
+            if (element == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (element.getClass() != elementType) {
+                elementType = element.getClass();
+                elementSerializer = provider.findValueSerializer(elementType);
+            }
+            elementSerializer.serialize(element, gen, provider);
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeEndObject();
+    }
+}
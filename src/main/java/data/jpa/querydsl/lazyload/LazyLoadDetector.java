@@ -0,0 +1,145 @@
+package data.jpa.querydsl.lazyload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 요청(또는 트랜잭션) 단위로 연관관계별 지연 로딩 횟수를 세서 N+1 을 찾아낸다.
+ * 임계값을 넘으면 설정에 따라 로그를 남기거나 예외를 던지고, 마지막으로 호출된 리포지토리 메서드를 함께 알려준다.
+ */
+@Slf4j
+@Component
+public class LazyLoadDetector {
+
+    public enum Action {
+        LOG, THROW
+    }
+
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final ThreadLocal<String> repositoryCall = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int threshold;
+    private final Action action;
+
+    public LazyLoadDetector(@Value("${lazy-load-detector.enabled:true}") boolean enabled,
+                            @Value("${lazy-load-detector.threshold:10}") int threshold,
+                            @Value("${lazy-load-detector.action:log}") Action action) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.action = action;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 요청 단위 범위를 시작한다. 이미 열린 범위가 있으면 그대로 둔다.
+     */
+    public boolean begin(String name) {
+        if (!enabled || currentScope.get() != null) {
+            return false;
+        }
+        currentScope.set(new Scope(name));
+        return true;
+    }
+
+    public void end() {
+        final Scope scope = currentScope.get();
+        currentScope.remove();
+        repositoryCall.remove();
+        if (scope != null && scope.exceeded) {
+            log.warn("N+1 의심 [{}] {}", scope.name, scope.summary());
+        }
+    }
+
+    /**
+     * 리포지토리 호출을 기록한다. 호출이 끝나도 값을 남겨 두어 그 결과를 순회하며
+     * 발생하는 지연 로딩의 출처로 쓴다.
+     */
+    void repositoryCalled(String call) {
+        if (enabled) {
+            repositoryCall.set(call);
+        }
+    }
+
+    void onLazyLoad(String association) {
+        if (!enabled) {
+            return;
+        }
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            scope = beginTransactionScope();
+            if (scope == null) {
+                return;
+            }
+        }
+        final Counter counter = scope.counters.computeIfAbsent(association, key -> new Counter(repositoryCall.get()));
+        counter.count++;
+        if (counter.count != threshold + 1) {
+            return;
+        }
+        scope.exceeded = true;
+        final String message = String.format("%s 지연 로딩이 %d 회를 넘었습니다. [%s] origin=%s",
+            association, threshold, scope.name, counter.origin);
+        if (action == Action.THROW) {
+            throw new LazyLoadThresholdExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * 웹 요청 밖(배치, 테스트 등)에서는 트랜잭션을 범위로 삼는다.
+     */
+    private Scope beginTransactionScope() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        final Scope scope = new Scope("transaction");
+        currentScope.set(scope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (currentScope.get() == scope) {
+                    end();
+                }
+            }
+        });
+        return scope;
+    }
+
+    private static final class Scope {
+
+        private final String name;
+        private final Map<String, Counter> counters = new LinkedHashMap<>();
+        private boolean exceeded;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        private String summary() {
+            return counters.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().count + " (origin=" + entry.getValue().origin + ")")
+                .collect(Collectors.joining(", "));
+        }
+    }
+
+    private static final class Counter {
+
+        private final String origin;
+        private int count;
+
+        private Counter(String origin) {
+            this.origin = origin;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package data.jpa.querydsl.lazyload;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 프록시 초기화(Member.team 등)와 컬렉션 초기화(Team.members 등)를 지연 로딩으로 보고 감지기에 알린다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LazyLoadEventListener implements Integrator, LoadEventListener, InitializeCollectionEventListener {
+
+    private final transient LazyLoadDetector detector;
+
+    @Override
+    public void integrate(Metadata metadata,
+                          SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        final EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        // 프록시 초기화만 IMMEDIATE_LOAD 로 들어온다. find/getReference 는 지연 로딩이 아니다
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            detector.onLazyLoad(ClassUtils.getShortName(event.getEntityClassName()) + " proxy");
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        // role 은 "소유 엔티티명.프로퍼티" 형태라 패키지만 떼어 Team.members 처럼 남긴다
+        final String ownerEntityName = event.getAffectedOwnerEntityName();
+        final String role = event.getCollection().getRole();
+        if (role != null && ownerEntityName != null && role.startsWith(ownerEntityName)) {
+            detector.onLazyLoad(ClassUtils.getShortName(ownerEntityName) + role.substring(ownerEntityName.length()));
+        } else {
+            detector.onLazyLoad(role == null ? "collection" : role);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package data.jpa.querydsl.lazyload;
+
+/**
+ * 한 요청 안에서 같은 연관관계의 지연 로딩이 임계값을 넘었을 때 던진다.
+ */
+public class LazyLoadThresholdExceededException extends RuntimeException {
+
+    public LazyLoadThresholdExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package data.jpa.querydsl.lazyload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * HTTP 요청 하나를 지연 로딩 감지 범위로 삼는다. 응답 직렬화 중의 지연 로딩(OSIV)도 같은 범위에 포함된다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LazyLoadWebConfig implements WebMvcConfigurer {
+
+    private static final String SCOPE_OWNER = LazyLoadWebConfig.class.getName() + ".SCOPE_OWNER";
+
+    private final LazyLoadDetector detector;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (detector.begin(request.getMethod() + " " + request.getRequestURI())) {
+                    request.setAttribute(SCOPE_OWNER, Boolean.TRUE);
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                if (request.getAttribute(SCOPE_OWNER) != null) {
+                    request.removeAttribute(SCOPE_OWNER);
+                    detector.end();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package data.jpa.querydsl.lazyload;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 지연 로딩의 출처를 알 수 있도록 리포지토리 호출을 감지기에 기록한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryCallTracker {
+
+    private static final String APPLICATION_PACKAGE = "data.jpa.querydsl.";
+
+    private final LazyLoadDetector detector;
+
+    @Before("@within(org.springframework.stereotype.Repository) || this(org.springframework.data.repository.Repository)")
+    public void track(JoinPoint joinPoint) {
+        if (detector.isEnabled()) {
+            detector.repositoryCalled(repositoryName(joinPoint) + "." + joinPoint.getSignature().getName());
+        }
+    }
+
+    /**
+     * 스프링 데이터 리포지토리는 구현체가 SimpleJpaRepository 이므로 애플리케이션 인터페이스 이름을 쓴다.
+     */
+    private static String repositoryName(JoinPoint joinPoint) {
+        for (Class<?> type : ClassUtils.getAllInterfacesAsSet(joinPoint.getThis())) {
+            if (type.getName().startsWith(APPLICATION_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+    }
+}
@@ -0,0 +1,128 @@
+package data.jpa.querydsl.metrics;
+
+import data.jpa.querydsl.dto.MemberCursorPage;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.repository.MemberSearchPlanCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 리포지토리 메서드별, 검색 조건 모양별 호출 시간과 반환 건수, 호출당 실행한 SQL 수를 기록한다.
+ * 페이징 메서드는 content 쿼리와 count 쿼리 시간을 따로 기록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberQueryMetrics {
+
+    private static final String CALLS = "member.repository.calls";
+    private static final String ROWS = "member.repository.rows";
+    private static final String STATEMENTS = "member.repository.statements";
+    private static final String PHASE = "member.repository.phase";
+
+    private final MeterRegistry registry;
+
+    public <T> T record(String repository, String method, MemberSearchCondition condition, Supplier<T> call) {
+        final String shape = condition != null ? shapeName(MemberSearchPlanCache.shapeOf(condition)) : "none";
+        final long statementsBefore = SqlStatementCounter.current();
+        final long start = System.nanoTime();
+        String exception = "none";
+        try {
+            final T result = call.get();
+            summary(ROWS, repository, method, shape).record(rowsOf(result));
+            return result;
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(CALLS)
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("shape", shape)
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            summary(STATEMENTS, repository, method, shape).record(SqlStatementCounter.current() - statementsBefore);
+        }
+    }
+
+    public <T> T content(String method, Supplier<T> query) {
+        final long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            phaseTimer(method, "content").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public long count(String method, LongSupplier query) {
+        final long start = System.nanoTime();
+        try {
+            return query.getAsLong();
+        } finally {
+            phaseTimer(method, "count").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer phaseTimer(String method, String phase) {
+        return Timer.builder(PHASE)
+            .tag("method", method)
+            .tag("phase", phase)
+            .register(registry);
+    }
+
+    private DistributionSummary summary(String name, String repository, String method, String shape) {
+        return DistributionSummary.builder(name)
+            .tag("repository", repository)
+            .tag("method", method)
+            .tag("shape", shape)
+            .register(registry);
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Page) {
+            return ((Page<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof MemberCursorPage) {
+            return ((MemberCursorPage) result).getContent().size();
+        }
+        if (result instanceof Long) {
+            // 스트리밍 조회는 내보낸 건수를 돌려준다
+            return (Long) result;
+        }
+        return result != null ? 1 : 0;
+    }
+
+    static String shapeName(int shape) {
+        if (shape == 0) {
+            return "none";
+        }
+        final StringBuilder name = new StringBuilder();
+        appendIf(name, shape, MemberSearchPlanCache.USERNAME, "username");
+        appendIf(name, shape, MemberSearchPlanCache.TEAM_NAME, "teamName");
+        appendIf(name, shape, MemberSearchPlanCache.AGE_GOE, "ageGoe");
+        appendIf(name, shape, MemberSearchPlanCache.AGE_LOE, "ageLoe");
+        return name.toString();
+    }
+
+    private static void appendIf(StringBuilder name, int shape, int predicate, String predicateName) {
+        if ((shape & predicate) != 0) {
+            if (name.length() > 0) {
+                name.append('+');
+            }
+            name.append(predicateName);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package data.jpa.querydsl.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate 가 준비하는 SQL 문 수를 스레드별로 센다. 호출 전후 값의 차이가 그 호출이 실행한 SQL 수다.
+ * 다른 스레드에 맡긴 쿼리는 그 스레드에서 세어지므로, 맡긴 쪽이 결과를 받을 때 {@link #add(long)} 로 옮겨 와야 한다.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    public static void add(long statements) {
+        COUNT.get()[0] += statements;
+    }
+}
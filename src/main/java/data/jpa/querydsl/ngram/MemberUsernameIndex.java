@@ -0,0 +1,344 @@
+package data.jpa.querydsl.ngram;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.event.MemberChangedEvent;
+import data.jpa.querydsl.event.MemberSnapshot;
+import data.jpa.querydsl.repository.MemberSearchPreFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * username 의 PREFIX, CONTAINS 조건을 LIKE 전체 스캔 대신 메모리 인덱스로 풀어 후보 member_id 를 돌려준다.
+ * PREFIX 는 정렬된 username 맵의 구간으로, CONTAINS 는 3글자 조각(trigram)별 비트맵의 교집합으로 찾고
+ * 조각만으로는 순서를 알 수 없으므로 실제 username 으로 한 번 더 확인한다.
+ *
+ * 3글자보다 짧은 CONTAINS 와 EXACT 는 DB 인덱스/스캔에 맡긴다(null 을 돌려준다).
+ * 갱신, 벌크 연산, 트랜잭션 안에서의 우회 규칙은 MemberBitmapIndex 와 같다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.search.username-index.enabled", havingValue = "true")
+public class MemberUsernameIndex implements MemberSearchPreFilter, DisposableBean {
+
+    static final int GRAM = 3;
+
+    private static final String SELECT_MEMBERS = "select member_id, username from member";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reloadMonitor = new Object();
+    private final AtomicLong bulkVersion = new AtomicLong();
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-username-index-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean stale = true;
+    // lock 으로 보호
+    private Postings current = new Postings();
+    private List<Consumer<Postings>> changesWhileLoading;
+
+    public MemberUsernameIndex(DataSource dataSource,
+                               @Value("${member.search.username-index.max-candidates:1000}") int maxCandidates) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public Collection<Long> candidates(MemberSearchCondition condition) {
+        final String username = condition.getUsername();
+        final UsernameMatch match = condition.getUsernameMatch();
+        if (!hasText(username) || match == UsernameMatch.EXACT
+            || (match == UsernameMatch.CONTAINS && username.length() < GRAM)
+            || stale
+            || (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            return match == UsernameMatch.PREFIX ? current.prefixed(username, maxCandidates)
+                : current.containing(username, maxCandidates);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * member 를 다시 읽어 인덱스를 새로 만든다. 적재 중에 들어온 엔티티 변경은 새 인덱스에 다시 적용한다.
+     */
+    public void reload() {
+        synchronized (reloadMonitor) {
+            final long version = bulkVersion.get();
+            final long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                changesWhileLoading = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Postings loaded = null;
+            try {
+                final Postings reading = new Postings();
+                jdbcTemplate.query(SELECT_MEMBERS, (RowCallbackHandler) rs -> reading.put(rs.getLong(1), rs.getString(2)));
+                reading.runOptimize();
+                loaded = reading;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (loaded != null) {
+                        for (Consumer<Postings> change : changesWhileLoading) {
+                            change.accept(loaded);
+                        }
+                        current = loaded;
+                        stale = bulkVersion.get() != version;
+                    }
+                    changesWhileLoading = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("member username index loaded in {} ms (members={}, trigrams={})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), loaded.memberCount(), loaded.gramCount());
+        }
+    }
+
+    /**
+     * 이전 username 은 인덱스가 가진 값을 쓰므로 before 가 없는 update 도 그대로 반영된다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        final long memberId = event.getMemberId();
+        final MemberSnapshot after = event.getAfter();
+        change(postings -> {
+            if (after != null) {
+                postings.put(memberId, after.getUsername());
+            } else {
+                postings.remove(memberId);
+            }
+        });
+    }
+
+    @EventListener
+    public void onBulkChange(BulkChangedEvent event) {
+        if (!event.isMemberTable()) {
+            return;
+        }
+        bulkVersion.incrementAndGet();
+        stale = true;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleReload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberUsernameIndex.this);
+                scheduleReload();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private void change(Consumer<Postings> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        reloadExecutor.execute(() -> {
+            reloadScheduled.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("member username index reload failed", e);
+            }
+        });
+    }
+
+    /**
+     * 한 글자가 16비트이므로 3글자 조각을 long 하나로 묶는다.
+     */
+    static long gram(String value, int from) {
+        return ((long) value.charAt(from) << 32) | ((long) value.charAt(from + 1) << 16) | value.charAt(from + 2);
+    }
+
+    /**
+     * 인덱스 본체. 스레드 안전하지 않으므로 바깥 락 안에서만 쓴다.
+     */
+    static final class Postings {
+
+        private final Map<Long, String> usernames = new HashMap<>();
+        private final TreeMap<String, Roaring64NavigableMap> byUsername = new TreeMap<>();
+        private final Map<Long, Roaring64NavigableMap> byGram = new HashMap<>();
+
+        void put(long memberId, String username) {
+            final String previous = usernames.get(memberId);
+            if (previous != null && previous.equals(username)) {
+                return;
+            }
+            remove(memberId);
+            if (username == null) {
+                return;
+            }
+            usernames.put(memberId, username);
+            byUsername.computeIfAbsent(username, key -> new Roaring64NavigableMap()).addLong(memberId);
+            for (int i = 0; i + GRAM <= username.length(); i++) {
+                byGram.computeIfAbsent(gram(username, i), key -> new Roaring64NavigableMap()).addLong(memberId);
+            }
+        }
+
+        void remove(long memberId) {
+            final String username = usernames.remove(memberId);
+            if (username == null) {
+                return;
+            }
+            removeFrom(byUsername, username, memberId);
+            for (int i = 0; i + GRAM <= username.length(); i++) {
+                removeFrom(byGram, gram(username, i), memberId);
+            }
+        }
+
+        /**
+         * @return prefix 로 시작하는 username 의 member_id. maxCandidates 를 넘으면 null
+         */
+        List<Long> prefixed(String prefix, int maxCandidates) {
+            final List<Long> ids = new ArrayList<>();
+            for (Map.Entry<String, Roaring64NavigableMap> entry : byUsername.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                if (ids.size() + entry.getValue().getLongCardinality() > maxCandidates) {
+                    return null;
+                }
+                final LongIterator iterator = entry.getValue().getLongIterator();
+                while (iterator.hasNext()) {
+                    ids.add(iterator.next());
+                }
+            }
+            return ids;
+        }
+
+        /**
+         * 조각 비트맵을 작은 것부터 교집합한 뒤 실제 username 으로 확인한다.
+         * @return part 를 포함하는 username 의 member_id. maxCandidates 를 넘으면 null
+         */
+        List<Long> containing(String part, int maxCandidates) {
+            final List<Roaring64NavigableMap> postings = new ArrayList<>(part.length() - GRAM + 1);
+            for (int i = 0; i + GRAM <= part.length(); i++) {
+                final Roaring64NavigableMap posting = byGram.get(gram(part, i));
+                if (posting == null) {
+                    return new ArrayList<>();
+                }
+                postings.add(posting);
+            }
+            postings.sort((a, b) -> Long.compare(a.getLongCardinality(), b.getLongCardinality()));
+
+            final Roaring64NavigableMap candidates = new Roaring64NavigableMap();
+            candidates.or(postings.get(0));
+            for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+                candidates.and(postings.get(i));
+            }
+
+            final List<Long> ids = new ArrayList<>();
+            final LongIterator iterator = candidates.getLongIterator();
+            while (iterator.hasNext()) {
+                final long memberId = iterator.next();
+                if (usernames.get(memberId).contains(part)) {
+                    if (ids.size() == maxCandidates) {
+                        return null;
+                    }
+                    ids.add(memberId);
+                }
+            }
+            return ids;
+        }
+
+        void runOptimize() {
+            byUsername.values().forEach(Roaring64NavigableMap::runOptimize);
+            byGram.values().forEach(Roaring64NavigableMap::runOptimize);
+        }
+
+        int memberCount() {
+            return usernames.size();
+        }
+
+        int gramCount() {
+            return byGram.size();
+        }
+
+        private static <K> void removeFrom(Map<K, Roaring64NavigableMap> postings, K key, long memberId) {
+            final Roaring64NavigableMap posting = postings.get(key);
+            if (posting == null) {
+                return;
+            }
+            posting.removeLong(memberId);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+}
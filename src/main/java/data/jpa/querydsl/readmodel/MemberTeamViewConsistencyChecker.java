@@ -0,0 +1,89 @@
+package data.jpa.querydsl.readmodel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * member_team 읽기 모델이 member/team 테이블과 같은지 확인하고, 다르면 다시 만든다.
+ * 기동 시 한 번 확인해서 동기화가 꺼져 있던 동안의 변경이나 직접 실행한 SQL 로 어긋난 상태를 바로잡는다.
+ */
+@Slf4j
+@Component
+public class MemberTeamViewConsistencyChecker {
+
+    private static final String MISSING = "select count(*) from member m"
+        + " where not exists (select 1 from member_team v where v.member_id = m.member_id)";
+
+    private static final String ORPHAN = "select count(*) from member_team v"
+        + " where not exists (select 1 from member m where m.member_id = v.member_id)";
+
+    private static final String MISMATCHED = "select count(*) from member m"
+        + " left join team t on t.team_id = m.team_id"
+        + " join member_team v on v.member_id = m.member_id"
+        + " where " + differs("v.username", "m.username")
+        + " or v.age <> m.age"
+        + " or " + differs("v.team_id", "t.team_id")
+        + " or " + differs("v.team_name", "t.name");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberTeamViewSynchronizer synchronizer;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public MemberTeamViewConsistencyChecker(JdbcTemplate jdbcTemplate,
+                                            MemberTeamViewSynchronizer synchronizer,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${member.search.read-model.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.synchronizer = synchronizer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Transactional(readOnly = true)
+    public ReadModelConsistencyReport check() {
+        return new ReadModelConsistencyReport(count(MISSING), count(ORPHAN), count(MISMATCHED));
+    }
+
+    /**
+     * 어긋나 있으면 다시 만들고, 다시 만들기 전의 상태를 돌려준다.
+     */
+    public ReadModelConsistencyReport repair() {
+        return transactionTemplate.execute(status -> {
+            final ReadModelConsistencyReport report = check();
+            if (!report.isConsistent()) {
+                log.warn("member_team read model is inconsistent, rebuilding : {}", report);
+                synchronizer.rebuild();
+            }
+            return report;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (enabled) {
+            repair();
+        }
+    }
+
+    private long count(String sql) {
+        final Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * null 도 값으로 비교한다. (IS DISTINCT FROM 을 지원하지 않는 DB 를 위해 풀어서 쓴다)
+     */
+    private static String differs(String left, String right) {
+        return "(" + left + " <> " + right
+            + " or (" + left + " is null and " + right + " is not null)"
+            + " or (" + left + " is not null and " + right + " is null))";
+    }
+}
@@ -0,0 +1,28 @@
+package data.jpa.querydsl.readmodel;
+
+/**
+ * member_team 읽기 모델을 member/team 테이블에서 다시 만드는 SQL.
+ */
+final class MemberTeamViewSql {
+
+    static final String INSERT_SELECT = "insert into member_team (member_id, username, age, team_id, team_name)"
+        + " select m.member_id, m.username, m.age, t.team_id, t.name"
+        + " from member m left join team t on t.team_id = m.team_id";
+
+    static final String DELETE_ALL = "delete from member_team";
+
+    static final String DELETE_MEMBERS = "delete from member_team where member_id in (:ids)";
+
+    static final String INSERT_MEMBERS = INSERT_SELECT + " where m.member_id in (:ids)";
+
+    static final String DELETE_MEMBER_RANGE = "delete from member_team where member_id between ? and ?";
+
+    static final String INSERT_MEMBER_RANGE = INSERT_SELECT + " where m.member_id between ? and ?";
+
+    static final String RENAME_TEAM = "update member_team set team_name = ? where team_id = ?";
+
+    static final String DETACH_TEAM = "update member_team set team_id = null, team_name = null where team_id = ?";
+
+    private MemberTeamViewSql() {
+    }
+}
@@ -0,0 +1,241 @@
+package data.jpa.querydsl.readmodel;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member/Team 엔티티 변경을 Hibernate 이벤트로 모아 두었다가 flush 가 끝날 때 member_team 읽기 모델에 반영한다.
+ * flush 가 끝나야 JDBC 배치가 실행되므로, 그 뒤에 같은 커넥션에서 member/team 을 다시 읽어 행 단위로 덮어쓴다.
+ * member 벌크 DML 은 이벤트에 실린 id 구간만 다음 flush(늦어도 커밋 직전 flush) 에서 다시 맞추고,
+ * 구간을 알 수 없는 벌크 DML 일 때만 전체를 다시 만든다.
+ * 변경 내역은 세션별로 모으므로 REQUIRES_NEW 로 중첩된 트랜잭션끼리 섞이지 않는다.
+ */
+@Component
+public class MemberTeamViewSynchronizer implements Integrator,
+    PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+    FlushEventListener, AutoFlushEventListener {
+
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final transient EntityManager em;
+    private final transient JdbcTemplate jdbcTemplate;
+    private final transient NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final boolean enabled;
+    private final transient Map<Object, Pending> pendingBySession = new ConcurrentHashMap<>();
+
+    /**
+     * EntityManager 는 이 리스너를 등록하는 EntityManagerFactory 에 의존하므로 지연 주입한다.
+     */
+    public MemberTeamViewSynchronizer(@Lazy EntityManager em,
+                                      JdbcTemplate jdbcTemplate,
+                                      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                      @Value("${member.search.read-model.enabled:false}") boolean enabled) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void integrate(Metadata metadata,
+                          SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        if (!enabled) {
+            return;
+        }
+        final EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pending(event.getSession()).memberIds.add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        final Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            pending(event.getSession()).memberIds.add((Long) event.getId());
+        } else if (entity instanceof Team) {
+            final int nameIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("name");
+            final String newName = (String) event.getState()[nameIndex];
+            if (event.getOldState() == null || !Objects.equals(event.getOldState()[nameIndex], newName)) {
+                pending(event.getSession()).renamedTeams.put((Long) event.getId(), newName);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        final Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            pending(event.getSession()).memberIds.add((Long) event.getId());
+        } else if (entity instanceof Team) {
+            final Pending pending = pending(event.getSession());
+            pending.renamedTeams.remove((Long) event.getId());
+            pending.deletedTeams.add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @EventListener
+    public void onBulkChange(BulkChangedEvent event) {
+        if (!enabled || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        final Pending pending = pending(em.unwrap(SessionImplementor.class));
+        if (event.hasMemberIdRange()) {
+            pending.memberIdRanges.add(new long[]{event.getMinMemberId(), event.getMaxMemberId()});
+        } else {
+            pending.rebuild = true;
+        }
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        apply(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        apply(event.getSession());
+    }
+
+    /**
+     * member_team 을 member/team 테이블 기준으로 전부 다시 만든다.
+     */
+    public void rebuild() {
+        jdbcTemplate.update(MemberTeamViewSql.DELETE_ALL);
+        jdbcTemplate.update(MemberTeamViewSql.INSERT_SELECT);
+    }
+
+    private void apply(Object session) {
+        final Pending pending = pendingBySession.get(session);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        if (pending.rebuild) {
+            rebuild();
+            pending.clear();
+            return;
+        }
+
+        if (!pending.renamedTeams.isEmpty()) {
+            final List<Object[]> renames = new ArrayList<>();
+            pending.renamedTeams.forEach((teamId, name) -> renames.add(new Object[]{name, teamId}));
+            jdbcTemplate.batchUpdate(MemberTeamViewSql.RENAME_TEAM, renames);
+        }
+        if (!pending.deletedTeams.isEmpty()) {
+            final List<Object[]> deletes = new ArrayList<>();
+            pending.deletedTeams.forEach(teamId -> deletes.add(new Object[]{teamId}));
+            jdbcTemplate.batchUpdate(MemberTeamViewSql.DETACH_TEAM, deletes);
+        }
+        for (long[] range : pending.memberIdRanges) {
+            jdbcTemplate.update(MemberTeamViewSql.DELETE_MEMBER_RANGE, range[0], range[1]);
+            jdbcTemplate.update(MemberTeamViewSql.INSERT_MEMBER_RANGE, range[0], range[1]);
+        }
+        final List<Long> memberIds = new ArrayList<>(pending.memberIds);
+        for (int from = 0; from < memberIds.size(); from += IN_CLAUSE_SIZE) {
+            final Map<String, List<Long>> params = Collections.singletonMap("ids",
+                memberIds.subList(from, Math.min(memberIds.size(), from + IN_CLAUSE_SIZE)));
+            namedParameterJdbcTemplate.update(MemberTeamViewSql.DELETE_MEMBERS, params);
+            namedParameterJdbcTemplate.update(MemberTeamViewSql.INSERT_MEMBERS, params);
+        }
+        pending.clear();
+    }
+
+    private Pending pending(Object session) {
+        final Pending existing = pendingBySession.get(session);
+        if (existing != null) {
+            return existing;
+        }
+        final Pending created = new Pending();
+        pendingBySession.put(session, created);
+        // 롤백되거나 flush 없이 끝나도 모아 둔 내역이 남지 않게 트랜잭션이 끝나면 지운다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    pendingBySession.remove(session);
+                }
+            });
+        }
+        return created;
+    }
+
+    private static final class Pending {
+
+        private final Set<Long> memberIds = new LinkedHashSet<>();
+        private final Map<Long, String> renamedTeams = new LinkedHashMap<>();
+        private final Set<Long> deletedTeams = new LinkedHashSet<>();
+        private final List<long[]> memberIdRanges = new ArrayList<>();
+        private boolean rebuild;
+
+        private boolean isEmpty() {
+            return !rebuild && memberIds.isEmpty() && renamedTeams.isEmpty() && deletedTeams.isEmpty()
+                && memberIdRanges.isEmpty();
+        }
+
+        private void clear() {
+            memberIds.clear();
+            memberIdRanges.clear();
+            renamedTeams.clear();
+            deletedTeams.clear();
+            rebuild = false;
+        }
+    }
+}
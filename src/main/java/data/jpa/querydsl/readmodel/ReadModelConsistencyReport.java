@@ -0,0 +1,20 @@
+package data.jpa.querydsl.readmodel;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class ReadModelConsistencyReport {
+    private final long missingRows;
+    private final long orphanRows;
+    private final long mismatchedRows;
+    private final boolean consistent;
+
+    public ReadModelConsistencyReport(long missingRows, long orphanRows, long mismatchedRows) {
+        this.missingRows = missingRows;
+        this.orphanRows = orphanRows;
+        this.mismatchedRows = mismatchedRows;
+        this.consistent = missingRows == 0 && orphanRows == 0 && mismatchedRows == 0;
+    }
+}
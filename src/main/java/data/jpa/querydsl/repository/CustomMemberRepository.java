@@ -1,6 +1,8 @@
 package data.jpa.querydsl.repository;
 
+import data.jpa.querydsl.dto.MemberCursorPage;
 import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
 import data.jpa.querydsl.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,4 +13,6 @@ public interface CustomMemberRepository {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchParallel(MemberSearchCondition condition, Pageable pageable);
+    MemberCursorPage searchByCursor(MemberSearchCondition condition, MemberSearchCursor cursor, int size);
 }
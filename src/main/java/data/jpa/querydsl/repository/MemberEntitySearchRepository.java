@@ -0,0 +1,16 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 검색 조건으로 Member 엔티티를 돌려준다. team 을 fetch join 으로 함께 읽으므로 member.getTeam() 이 쿼리를 더 만들지 않는다.
+ */
+public interface MemberEntitySearchRepository {
+    List<Member> searchEntities(MemberSearchCondition condition);
+    Page<Member> searchEntities(MemberSearchCondition condition, Pageable pageable);
+}
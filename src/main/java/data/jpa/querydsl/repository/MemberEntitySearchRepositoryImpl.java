@@ -0,0 +1,96 @@
+package data.jpa.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static data.jpa.querydsl.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+public class MemberEntitySearchRepositoryImpl implements MemberEntitySearchRepository {
+
+    private final JPAQueryFactory jpaQueryFactory;
+
+    public MemberEntitySearchRepositoryImpl(EntityManager em) {
+        this.jpaQueryFactory = new JPAQueryFactory(em);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> searchEntities(MemberSearchCondition condition) {
+        return query(condition).fetch();
+    }
+
+    /**
+     * to-one 인 team 만 fetch join 하므로 결과 행 수가 늘지 않아 페이징이 SQL 에서 처리된다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> searchEntities(MemberSearchCondition condition, Pageable pageable) {
+        final List<Member> content = query(condition)
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(condition));
+    }
+
+    private JPAQuery<Member> query(MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .selectFrom(member)
+            .leftJoin(member.team, team).fetchJoin()
+            .where(
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            );
+    }
+
+    private long count(MemberSearchCondition condition) {
+        final JPAQuery<Member> count = jpaQueryFactory
+            .selectFrom(member);
+        if (hasText(condition.getTeamName())) {
+            count.join(member.team, team);
+        }
+        return count
+            .where(
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+            .fetchCount();
+    }
+
+    private BooleanExpression usernameEq(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return match == UsernameMatch.EXACT
+            ? member.username.eq(username)
+            : member.username.like(match.likePattern(username), UsernameMatch.LIKE_ESCAPE);
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -1,17 +1,30 @@
 package data.jpa.querydsl.repository;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.cache.MemberSearchResultCache;
+import data.jpa.querydsl.dto.MemberBatchSearchResult;
 import data.jpa.querydsl.dto.MemberSearchCondition;
 import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
 import data.jpa.querydsl.dto.QMemberTeamDto;
 import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.metrics.MemberQueryMetrics;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static data.jpa.querydsl.entity.QMember.member;
 import static data.jpa.querydsl.entity.QTeam.team;
@@ -20,12 +33,26 @@ import static org.springframework.util.StringUtils.hasText;
 @Repository
 public class MemberJpaRepository {
 
+    private static final String METRIC_NAME = "MemberJpaRepository";
+
     private final EntityManager em;
     private final JPAQueryFactory jpaQueryFactory;
+    private final MemberSearchPlanCache planCache;
+    private final MemberSearchResultCache resultCache;
+    private final MemberQueryMetrics metrics;
+    private final ReadOnlyQueryHints readOnlyHints;
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em,
+                               MemberSearchPlanCache planCache,
+                               MemberSearchResultCache resultCache,
+                               MemberQueryMetrics metrics,
+                               ReadOnlyQueryHints readOnlyHints) {
         this.em = em;
         this.jpaQueryFactory = new JPAQueryFactory(em);
+        this.planCache = planCache;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.readOnlyHints = readOnlyHints;
     }
 
     public void save(Member member) {
@@ -36,24 +63,50 @@ public class MemberJpaRepository {
         return Optional.ofNullable(em.find(Member.class, id));
     }
 
+    @Transactional(readOnly = true)
     public List<Member> findAll() {
-        return jpaQueryFactory
+        return metrics.record(METRIC_NAME, "findAll", null, () -> jpaQueryFactory
             .selectFrom(member)
-            .fetch();
+            .fetch());
     }
 
+    @Transactional(readOnly = true)
     public List<Member> findByUsername(String username) {
-        return jpaQueryFactory
+        return metrics.record(METRIC_NAME, "findByUsername", null, () -> jpaQueryFactory
             .selectFrom(member)
             .where(member.username.eq(username))
-            .fetch();
+            .fetch());
+    }
+
+    /**
+     * findAll 과 같지만 읽기 전용 엔티티를 돌려준다. 값을 바꿔도 DB 에 반영되지 않는다.
+     */
+    public List<Member> findAllReadOnly() {
+        return metrics.record(METRIC_NAME, "findAllReadOnly", null, () -> readOnlyHints.apply(jpaQueryFactory
+            .selectFrom(member))
+            .fetch());
+    }
+
+    /**
+     * findByUsername 과 같지만 읽기 전용 엔티티를 돌려준다. 값을 바꿔도 DB 에 반영되지 않는다.
+     */
+    public List<Member> findByUsernameReadOnly(String username) {
+        return metrics.record(METRIC_NAME, "findByUsernameReadOnly", null, () -> readOnlyHints.apply(jpaQueryFactory
+            .selectFrom(member)
+            .where(member.username.eq(username)))
+            .fetch());
     }
 
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
-        BooleanBuilder builder = new BooleanBuilder();
-        if (hasText(condition.getUsername())) {
-            builder.and(member.username.eq(condition.getUsername()));
+        return metrics.record(METRIC_NAME, "searchByBuilder", condition, () -> doSearchByBuilder(condition));
+    }
+
+    private List<MemberTeamDto> doSearchByBuilder(MemberSearchCondition condition) {
+        if (planCache.isEnabled()) {
+            return planCache.plan(condition).fetch(em, condition);
         }
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(usernameEq(condition.getUsername(), condition.getUsernameMatch()));
         if (hasText(condition.getTeamName())) {
             builder.and(team.name.eq(condition.getTeamName()));
         }
@@ -77,7 +130,93 @@ public class MemberJpaRepository {
             .fetch();
     }
 
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return metrics.record(METRIC_NAME, "search", condition,
+            () -> resultCache.list("search", condition, () -> doSearch(condition)));
+    }
+
+    private List<MemberTeamDto> doSearch(MemberSearchCondition condition) {
+        if (planCache.isEnabled()) {
+            return planCache.plan(condition).fetch(em, condition);
+        }
+        return searchQuery(condition).fetch();
+    }
+
+    /**
+     * 여러 검색 조건을 OR 로 묶어 한 번의 쿼리로 조회한 뒤, 결과를 메모리에서 조건별로 나눈다.
+     * 같은 조건은 한 번만 평가하고, 빈 조건이 하나라도 있으면 전체를 조회한다. 결과는 요청한 조건 순서를 따른다.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberBatchSearchResult> searchBatch(List<MemberSearchCondition> conditions) {
+        return metrics.record(METRIC_NAME, "searchBatch", null, () -> doSearchBatch(conditions));
+    }
+
+    private List<MemberBatchSearchResult> doSearchBatch(List<MemberSearchCondition> conditions) {
+        final Map<MemberSearchCondition, List<MemberTeamDto>> contents = new LinkedHashMap<>();
+        for (MemberSearchCondition condition : conditions) {
+            contents.putIfAbsent(condition, new ArrayList<>());
+        }
+
+        BooleanBuilder anyOf = new BooleanBuilder();
+        for (MemberSearchCondition condition : contents.keySet()) {
+            final BooleanBuilder each = new BooleanBuilder()
+                .and(usernameEq(condition.getUsername(), condition.getUsernameMatch()))
+                .and(teamNameEq(condition.getTeamName()))
+                .and(ageGoe(condition.getAgeGoe()))
+                .and(ageLoe(condition.getAgeLoe()));
+            if (!each.hasValue()) {
+                anyOf = new BooleanBuilder();
+                break;
+            }
+            anyOf.or(each);
+        }
+
+        final List<MemberTeamDto> rows = jpaQueryFactory
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(anyOf)
+            .fetch();
+
+        for (MemberTeamDto row : rows) {
+            for (Map.Entry<MemberSearchCondition, List<MemberTeamDto>> entry : contents.entrySet()) {
+                if (entry.getKey().matches(row)) {
+                    entry.getValue().add(row);
+                }
+            }
+        }
+        return conditions.stream()
+            .map(condition -> new MemberBatchSearchResult(condition, contents.get(condition)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * search 와 같은 쿼리를 forward-only 커서로 읽으면서 한 건씩 consumer 에 넘긴다.
+     * 결과 전체를 메모리에 올리지 않으므로 결과 크기와 무관하게 힙 사용량이 일정하다.
+     */
+    @Transactional(readOnly = true)
+    public void searchStream(MemberSearchCondition condition, int fetchSize, Consumer<MemberTeamDto> consumer) {
+        metrics.record(METRIC_NAME, "searchStream", condition, () -> {
+            long rows = 0;
+            try (CloseableIterator<MemberTeamDto> iterator = searchQuery(condition)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .iterate()) {
+                while (iterator.hasNext()) {
+                    consumer.accept(iterator.next());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+
+    private JPAQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
         return jpaQueryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
@@ -88,16 +227,20 @@ public class MemberJpaRepository {
             .from(member)
             .leftJoin(member.team, team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
+            );
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    private BooleanExpression usernameEq(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return match == UsernameMatch.EXACT
+            ? member.username.eq(username)
+            : member.username.like(match.likePattern(username), UsernameMatch.LIKE_ESCAPE);
     }
 
     private BooleanExpression teamNameEq(String teamName) {
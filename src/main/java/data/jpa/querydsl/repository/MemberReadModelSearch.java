@@ -0,0 +1,100 @@
+package data.jpa.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.dto.QMemberTeamDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static data.jpa.querydsl.entity.QMemberTeamView.memberTeamView;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member_team 읽기 모델에서 조인 없이 검색한다.
+ * member.search.read-model.enabled 가 false 면 MemberRepositoryImpl 은 member/team 정규화 테이블을 조인해서 검색한다.
+ */
+@Component
+public class MemberReadModelSearch {
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final boolean enabled;
+
+    public MemberReadModelSearch(EntityManager em,
+                                 @Value("${member.search.read-model.enabled:false}") boolean enabled) {
+        this.jpaQueryFactory = new JPAQueryFactory(em);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition) {
+        return query(condition).fetch();
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition, Pageable pageable) {
+        return query(condition)
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+    }
+
+    public long count(MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .selectFrom(memberTeamView)
+            .where(
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+            .fetchCount();
+    }
+
+    private JPAQuery<MemberTeamDto> query(MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .select(new QMemberTeamDto(
+                memberTeamView.memberId,
+                memberTeamView.username,
+                memberTeamView.age,
+                memberTeamView.teamId,
+                memberTeamView.teamName))
+            .from(memberTeamView)
+            .where(
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            );
+    }
+
+    private BooleanExpression usernameEq(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return match == UsernameMatch.EXACT
+            ? memberTeamView.username.eq(username)
+            : memberTeamView.username.like(match.likePattern(username), UsernameMatch.LIKE_ESCAPE);
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? memberTeamView.teamName.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? memberTeamView.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? memberTeamView.age.loe(ageLoe) : null;
+    }
+}
@@ -2,9 +2,11 @@ package data.jpa.querydsl.repository;
 
 import data.jpa.querydsl.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, CustomMemberRepository {
+public interface MemberRepository extends JpaRepository<Member, Long>, CustomMemberRepository, MemberEntitySearchRepository {
+    @Transactional(readOnly = true)
     List<Member> findByUsername(String username);
 }
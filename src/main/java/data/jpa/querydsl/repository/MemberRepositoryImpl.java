@@ -1,20 +1,34 @@
 package data.jpa.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.cache.MemberSearchResultCache;
+import data.jpa.querydsl.dto.MemberCursorPage;
 import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
 import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
 import data.jpa.querydsl.dto.QMemberTeamDto;
 import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.metrics.MemberQueryMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static data.jpa.querydsl.entity.QMember.member;
 import static data.jpa.querydsl.entity.QTeam.team;
@@ -22,16 +36,81 @@ import static org.springframework.util.StringUtils.hasText;
 
 public class MemberRepositoryImpl implements CustomMemberRepository {
 
+    private static final String METRIC_NAME = "MemberRepository";
+
     private final EntityManager em;
     private final JPAQueryFactory jpaQueryFactory;
+    private final MemberSearchPlanCache planCache;
+    private final MemberSearchCountCache countCache;
+    private final MemberSearchResultCache resultCache;
+    private final MemberQueryMetrics metrics;
+    private final MemberSearchParallelExecutor parallelExecutor;
+    private final MemberReadModelSearch readModel;
+    private final List<MemberSearchPreFilter> preFilters;
 
-    public MemberRepositoryImpl(EntityManager em) {
+    public MemberRepositoryImpl(EntityManager em,
+                                MemberSearchPlanCache planCache,
+                                MemberSearchCountCache countCache,
+                                MemberSearchResultCache resultCache,
+                                MemberQueryMetrics metrics,
+                                MemberSearchParallelExecutor parallelExecutor,
+                                MemberReadModelSearch readModel,
+                                ObjectProvider<MemberSearchPreFilter> preFilters) {
         this.em = em;
         this.jpaQueryFactory = new JPAQueryFactory(em);
+        this.planCache = planCache;
+        this.countCache = countCache;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.parallelExecutor = parallelExecutor;
+        this.readModel = readModel;
+        this.preFilters = preFilters.orderedStream().collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return metrics.record(METRIC_NAME, "search", condition,
+            () -> resultCache.list("search", condition, () -> doSearch(condition)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberTeamDto> searchSimple(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchSimple", condition,
+            () -> resultCache.page("searchSimple", condition, pageable, () -> doSearchSimple(condition, pageable)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberTeamDto> searchComplex(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchComplex", condition,
+            () -> resultCache.page("searchComplex", condition, pageable, () -> doSearchComplex(condition, pageable)));
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchParallel(MemberSearchCondition condition, Pageable pageable) {
+        return metrics.record(METRIC_NAME, "searchParallel", condition,
+            () -> resultCache.page("searchParallel", condition, pageable, () -> doSearchParallel(condition, pageable)));
+    }
+
+    @Override
+    public MemberCursorPage searchByCursor(MemberSearchCondition condition, MemberSearchCursor cursor, int size) {
+        return metrics.record(METRIC_NAME, "searchByCursor", condition,
+            () -> doSearchByCursor(condition, cursor, size));
+    }
+
+    private List<MemberTeamDto> doSearch(MemberSearchCondition condition) {
+        final Collection<Long> candidates = candidates(condition);
+        if (candidates != null) {
+            return candidates.isEmpty() ? Collections.emptyList() : fetchCandidates(condition, candidates);
+        }
+        if (readModel.isEnabled()) {
+            return readModel.fetch(condition);
+        }
+        if (planCache.isEnabled()) {
+            return planCache.plan(condition).fetch(em, condition);
+        }
         return jpaQueryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
@@ -42,7 +121,7 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
             .from(member)
             .leftJoin(member.team, team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
@@ -50,9 +129,71 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
             .fetch();
     }
 
-    @Override
-    public Page<MemberTeamDto> searchSimple(MemberSearchCondition condition, Pageable pageable) {
-        final QueryResults<MemberTeamDto> results = jpaQueryFactory
+    /**
+     * 적용할 수 있는 필터들의 후보 교집합. 적용할 수 있는 필터가 없으면 null
+     */
+    private Collection<Long> candidates(MemberSearchCondition condition) {
+        Collection<Long> candidates = null;
+        for (MemberSearchPreFilter preFilter : preFilters) {
+            final Collection<Long> filtered = preFilter.candidates(condition);
+            if (filtered == null) {
+                continue;
+            }
+            if (candidates == null) {
+                candidates = filtered;
+            } else {
+                final Set<Long> intersection = new HashSet<>(filtered);
+                intersection.retainAll(candidates);
+                candidates = intersection;
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * 후보 id 를 PK IN 조건으로 주고 원래 조건을 그대로 적용한다. 후보는 결과의 상위 집합이면 된다.
+     */
+    private List<MemberTeamDto> fetchCandidates(MemberSearchCondition condition, Collection<Long> candidates) {
+        return jpaQueryFactory
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                member.id.in(candidates),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+            .fetch();
+    }
+
+    private Page<MemberTeamDto> doSearchSimple(MemberSearchCondition condition, Pageable pageable) {
+        if (readModel.isEnabled()) {
+            final long total = metrics.count("searchSimple", () -> readModel.count(condition));
+            final List<MemberTeamDto> content = total > 0
+                ? metrics.content("searchSimple", () -> readModel.fetch(condition, pageable))
+                : Collections.emptyList();
+            return new PageImpl<>(content, pageable, total);
+        }
+        if (planCache.isEnabled()) {
+            final MemberSearchPlan plan = planCache.plan(condition);
+            final long total = metrics.count("searchSimple", () -> plan.count(em, condition));
+            final List<MemberTeamDto> content = total > 0
+                ? metrics.content("searchSimple", () -> plan.fetch(em, condition, pageable))
+                : Collections.emptyList();
+            return new PageImpl<>(content, pageable, total);
+        }
+        // fetchResults 는 count 와 content 를 한 번에 실행하므로 content 단계로 함께 기록된다
+        final QueryResults<MemberTeamDto> results = metrics.content("searchSimple", () -> jpaQueryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
                 member.username,
@@ -62,14 +203,14 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
             .from(member)
             .leftJoin(member.team, team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
             )
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
-            .fetchResults();
+            .fetchResults());
 
         final List<MemberTeamDto> content = results.getResults();
         final long total = results.getTotal();
@@ -77,9 +218,31 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
         return new PageImpl<>(content, pageable, total);
     }
 
-    @Override
-    public Page<MemberTeamDto> searchComplex(MemberSearchCondition condition, Pageable pageable) {
-        final List<MemberTeamDto> results = jpaQueryFactory
+    private Page<MemberTeamDto> doSearchComplex(MemberSearchCondition condition, Pageable pageable) {
+        final List<MemberTeamDto> results = metrics.content("searchComplex", () -> fetchContent(condition, pageable));
+        return PageableExecutionUtils.getPage(results, pageable,
+            () -> metrics.count("searchComplex", () -> countCache.get(condition, () -> fetchCount(condition))));
+    }
+
+    private Page<MemberTeamDto> doSearchParallel(MemberSearchCondition condition, Pageable pageable) {
+        // 호출자 트랜잭션의 flush 되지 않은 변경은 다른 커넥션에서 보이지 않으므로 순차 실행한다
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return doSearchComplex(condition, pageable);
+        }
+        return parallelExecutor.page(
+            () -> metrics.content("searchParallel", () -> fetchContent(condition, pageable)),
+            () -> metrics.count("searchParallel", () -> countCache.get(condition, () -> fetchCount(condition))),
+            pageable);
+    }
+
+    private List<MemberTeamDto> fetchContent(MemberSearchCondition condition, Pageable pageable) {
+        if (readModel.isEnabled()) {
+            return readModel.fetch(condition, pageable);
+        }
+        if (planCache.isEnabled()) {
+            return planCache.plan(condition).fetch(em, condition, pageable);
+        }
+        return jpaQueryFactory
             .select(new QMemberTeamDto(
                 member.id.as("memberId"),
                 member.username,
@@ -89,7 +252,7 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
             .from(member)
             .leftJoin(member.team, team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
@@ -97,23 +260,102 @@ public class MemberRepositoryImpl implements CustomMemberRepository {
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
             .fetch();
+    }
 
+    private long fetchCount(MemberSearchCondition condition) {
+        if (readModel.isEnabled()) {
+            return readModel.count(condition);
+        }
+        if (planCache.isEnabled()) {
+            return planCache.plan(condition).count(em, condition);
+        }
         final JPAQuery<Member> count = jpaQueryFactory
             .select(member)
+            .from(member);
+        if (hasText(condition.getTeamName())) {
+            count.join(member.team, team);
+        }
+        return count
+            .where(
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+            .fetchCount();
+    }
+
+    private MemberCursorPage doSearchByCursor(MemberSearchCondition condition, MemberSearchCursor cursor, int size) {
+        final List<MemberTeamDto> results = jpaQueryFactory
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
             .from(member)
             .leftJoin(member.team, team)
             .where(
-                usernameEq(condition.getUsername()),
+                usernameEq(condition.getUsername(), condition.getUsernameMatch()),
                 teamNameEq(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            );
+                ageLoe(condition.getAgeLoe()),
+                after(cursor)
+            )
+            .orderBy(cursorOrder(cursor.getSortKey()))
+            .limit(size + 1)
+            .fetch();
+
+        // size + 1 건을 조회해서 다음 페이지 존재 여부를 count 쿼리 없이 판단
+        if (results.size() <= size) {
+            return new MemberCursorPage(results, null);
+        }
+        final List<MemberTeamDto> content = results.subList(0, size);
+        return new MemberCursorPage(content, cursor.next(content.get(size - 1)).encode());
+    }
+
+    private BooleanExpression after(MemberSearchCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        final Long lastMemberId = cursor.getLastMemberId();
+        switch (cursor.getSortKey()) {
+            case AGE:
+                final int age = Integer.parseInt(cursor.getLastValue());
+                return member.age.gt(age)
+                    .or(member.age.eq(age).and(member.id.gt(lastMemberId)));
+            case USERNAME:
+                // username 이 null 인 회원이 먼저 오므로 null 구간 안에서는 id 로만 넘기고, 나머지는 모두 뒤에 있다
+                final String username = cursor.getLastValue();
+                if (username == null) {
+                    return member.username.isNull().and(member.id.gt(lastMemberId))
+                        .or(member.username.isNotNull());
+                }
+                return member.username.gt(username)
+                    .or(member.username.eq(username).and(member.id.gt(lastMemberId)));
+            default:
+                return member.id.gt(lastMemberId);
+        }
+    }
 
-        return PageableExecutionUtils.getPage(results, pageable, count::fetchCount);
+    private OrderSpecifier<?>[] cursorOrder(MemberSearchCursor.SortKey sortKey) {
+        switch (sortKey) {
+            case AGE:
+                return new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+            case USERNAME:
+                return new OrderSpecifier<?>[]{member.username.asc().nullsFirst(), member.id.asc()};
+            default:
+                return new OrderSpecifier<?>[]{member.id.asc()};
+        }
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    private BooleanExpression usernameEq(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return match == UsernameMatch.EXACT
+            ? member.username.eq(username)
+            : member.username.like(match.likePattern(username), UsernameMatch.LIKE_ESCAPE);
     }
 
     private BooleanExpression teamNameEq(String teamName) {
@@ -0,0 +1,84 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 같은 검색 조건으로 페이지를 넘길 때마다 전체 건수를 다시 세지 않도록 짧은 TTL 동안 total 을 보관한다.
+ * ttl 이 0 이면(기본값) 캐시를 쓰지 않는다.
+ * 쓰기 트랜잭션 안에서는 아직 커밋되지 않은 변경이 반영된 건수를 세므로 캐시를 거치지 않는다.
+ */
+@Component
+public class MemberSearchCountCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<MemberSearchCondition, Entry> totals = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberSearchCountCache(@Value("${member.search.count-cache.ttl:0s}") Duration ttl,
+                                  @Value("${member.search.count-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier counter) {
+        if (!isEnabled() || inReadWriteTransaction()) {
+            return counter.getAsLong();
+        }
+        final long now = System.nanoTime();
+        final Entry cached = totals.get(condition);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.total;
+        }
+        // 세는 도중 비워졌다면 이미 낡은 건수일 수 있으므로 저장하지 않는다
+        final long generationAtCount = generation.get();
+        final long total = counter.getAsLong();
+        if (generation.get() != generationAtCount) {
+            return total;
+        }
+        if (totals.size() >= maxSize) {
+            evictExpired(now);
+        }
+        if (totals.size() < maxSize) {
+            totals.put(condition.copy(), new Entry(total, now + ttlNanos));
+        }
+        return total;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        totals.clear();
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void evictExpired(long now) {
+        totals.values().removeIf(entry -> entry.expiresAt - now <= 0);
+    }
+
+    private static class Entry {
+        private final long total;
+        private final long expiresAt;
+
+        Entry(long total, long expiresAt) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
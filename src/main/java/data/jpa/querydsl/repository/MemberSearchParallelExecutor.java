@@ -0,0 +1,145 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.metrics.SqlStatementCounter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 페이징 검색의 content 쿼리와 count 쿼리를 크기가 제한된 스레드 풀에서 동시에 실행한다.
+ * 양쪽은 각자의 읽기 전용 트랜잭션(별도 커넥션)에서 실행되고, 트랜잭션 timeout 으로 DB 쿼리도 함께 끊는다.
+ * 한쪽이 실패하거나 timeout 을 넘기면 다른 쪽을 취소한다. 풀이 가득 차면 호출 스레드에서 실행한다.
+ * 작업 스레드에서 실행한 SQL 수는 호출 스레드의 {@link SqlStatementCounter} 로 옮겨 호출당 SQL 수에 포함한다.
+ * timeout 으로 끊겨 아직 끝나지 않은 작업의 SQL 은 포함되지 않는다.
+ */
+@Component
+public class MemberSearchParallelExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+
+    public MemberSearchParallelExecutor(PlatformTransactionManager transactionManager,
+                                        @Value("${member.search.parallel.pool-size:8}") int poolSize,
+                                        @Value("${member.search.parallel.queue-capacity:64}") int queueCapacity,
+                                        @Value("${member.search.parallel.timeout:5s}") Duration timeout) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("member-search-");
+        this.executor.initialize();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        this.timeout = timeout;
+    }
+
+    public <T> Page<T> page(Supplier<List<T>> content, Supplier<Long> count, Pageable pageable) {
+        final Task<List<T>> contentTask = submit(content);
+        final Task<Long> countTask = submit(count);
+        contentTask.result.whenComplete((result, e) -> {
+            if (e != null) {
+                countTask.cancel();
+            }
+        });
+        countTask.result.whenComplete((result, e) -> {
+            if (e != null) {
+                contentTask.cancel();
+            }
+        });
+
+        try {
+            CompletableFuture.allOf(contentTask.result, countTask.result).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return new PageImpl<>(contentTask.result.join(), pageable, countTask.result.join());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("paged search did not finish within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for paged search", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            // 정상 종료면 아무 일도 하지 않고, 예외로 빠져나가면 남은 쪽을 끊는다
+            contentTask.cancel();
+            countTask.cancel();
+            SqlStatementCounter.add(contentTask.workerStatements + countTask.workerStatements);
+        }
+    }
+
+    private <T> Task<T> submit(Supplier<T> query) {
+        final Task<T> task = new Task<>();
+        final Thread caller = Thread.currentThread();
+        final Runnable runnable = () -> {
+            final long statementsBefore = SqlStatementCounter.current();
+            T value = null;
+            Throwable failure = null;
+            try {
+                value = readOnlyTransaction.execute(status -> query.get());
+            } catch (Throwable e) {
+                failure = e;
+            }
+            // 결과를 넘기기 전에 기록해야 호출 스레드가 깨어난 뒤 읽는 값이 확정된다
+            if (Thread.currentThread() != caller) {
+                task.workerStatements = SqlStatementCounter.current() - statementsBefore;
+            }
+            if (failure != null) {
+                task.result.completeExceptionally(failure);
+            } else {
+                task.result.complete(value);
+            }
+        };
+        try {
+            task.future = executor.submit(runnable);
+        } catch (TaskRejectedException e) {
+            runnable.run();
+        }
+        return task;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static final class Task<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile Future<?> future;
+        private volatile long workerStatements;
+
+        private void cancel() {
+            if (result.isDone()) {
+                return;
+            }
+            result.cancel(false);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package data.jpa.querydsl.repository;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.QMemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.entity.Member;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static data.jpa.querydsl.entity.QTeam.team;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.AGE_GOE;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.AGE_LOE;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.TEAM_NAME;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.USERNAME;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.USERNAME_LIKE;
+import static data.jpa.querydsl.repository.MemberSearchPlanCache.has;
+
+public class MemberSearchPlan {
+
+    private final int shape;
+    private final String jpql;
+    private final Binding[] bindings;
+    private final String countJpql;
+    private final Binding[] countBindings;
+
+    private MemberSearchPlan(int shape, String jpql, Binding[] bindings, String countJpql, Binding[] countBindings) {
+        this.shape = shape;
+        this.jpql = jpql;
+        this.bindings = bindings;
+        this.countJpql = countJpql;
+        this.countBindings = countBindings;
+    }
+
+    static MemberSearchPlan build(EntityManager em, int shape) {
+        final Param<String> username = new Param<>(String.class, "username");
+        final Param<String> teamName = new Param<>(String.class, "teamName");
+        final Param<Integer> ageGoe = new Param<>(Integer.class, "ageGoe");
+        final Param<Integer> ageLoe = new Param<>(Integer.class, "ageLoe");
+
+        final QueryMetadata metadata = new JPAQuery<Void>()
+            .select(new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName")))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                has(shape, USERNAME) ? usernameEq(shape, username) : null,
+                has(shape, TEAM_NAME) ? team.name.eq(teamName) : null,
+                has(shape, AGE_GOE) ? member.age.goe(ageGoe) : null,
+                has(shape, AGE_LOE) ? member.age.loe(ageLoe) : null
+            )
+            .getMetadata();
+
+        // member -> team 은 to-one 이라 left join 이 건수를 바꾸지 않는다.
+        // count 쿼리는 teamName 조건이 있을 때만 team 을 (inner) join 한다.
+        final JPAQuery<Member> countQuery = new JPAQuery<Void>()
+            .select(member)
+            .from(member);
+        if (has(shape, TEAM_NAME)) {
+            countQuery.join(member.team, team);
+        }
+        final QueryMetadata countMetadata = countQuery
+            .where(
+                has(shape, USERNAME) ? usernameEq(shape, username) : null,
+                has(shape, TEAM_NAME) ? team.name.eq(teamName) : null,
+                has(shape, AGE_GOE) ? member.age.goe(ageGoe) : null,
+                has(shape, AGE_LOE) ? member.age.loe(ageLoe) : null
+            )
+            .getMetadata();
+
+        final JPQLTemplates templates = JPAProvider.getTemplates(em);
+        final JPQLSerializer serializer = new JPQLSerializer(templates, em);
+        serializer.serialize(metadata, false, null);
+        final JPQLSerializer countSerializer = new JPQLSerializer(templates, em);
+        countSerializer.serialize(countMetadata, true, null);
+
+        return new MemberSearchPlan(shape,
+            serializer.toString(), bindings(serializer.getConstantToLabel()),
+            countSerializer.toString(), bindings(countSerializer.getConstantToLabel()));
+    }
+
+    private static BooleanExpression usernameEq(int shape, Param<String> username) {
+        return has(shape, USERNAME_LIKE)
+            ? member.username.like(username, UsernameMatch.LIKE_ESCAPE)
+            : member.username.eq(username);
+    }
+
+    private static Binding[] bindings(Map<Object, String> constantToLabel) {
+        final List<Binding> bindings = new ArrayList<>(constantToLabel.size());
+        for (Map.Entry<Object, String> entry : constantToLabel.entrySet()) {
+            final Param<?> param = (Param<?>) entry.getKey();
+            bindings.add(new Binding(Integer.parseInt(entry.getValue()), param.getName()));
+        }
+        return bindings.toArray(new Binding[0]);
+    }
+
+    public int getShape() {
+        return shape;
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    public String getCountJpql() {
+        return countJpql;
+    }
+
+    public List<MemberTeamDto> fetch(EntityManager em, MemberSearchCondition condition) {
+        return toDtos(bind(em.createQuery(jpql), bindings, condition).getResultList());
+    }
+
+    public List<MemberTeamDto> fetch(EntityManager em, MemberSearchCondition condition, Pageable pageable) {
+        final Query query = bind(em.createQuery(jpql), bindings, condition)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize());
+        return toDtos(query.getResultList());
+    }
+
+    public long count(EntityManager em, MemberSearchCondition condition) {
+        return ((Number) bind(em.createQuery(countJpql), countBindings, condition).getSingleResult()).longValue();
+    }
+
+    private static Query bind(Query query, Binding[] bindings, MemberSearchCondition condition) {
+        for (Binding binding : bindings) {
+            query.setParameter(binding.position, binding.valueOf(condition));
+        }
+        return query;
+    }
+
+    private static List<MemberTeamDto> toDtos(List<?> rows) {
+        final List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            final Object[] columns = (Object[]) row;
+            result.add(new MemberTeamDto(
+                (Long) columns[0],
+                (String) columns[1],
+                (Integer) columns[2],
+                (Long) columns[3],
+                (String) columns[4]));
+        }
+        return result;
+    }
+
+    private static class Binding {
+        private final int position;
+        private final String name;
+
+        Binding(int position, String name) {
+            this.position = position;
+            this.name = name;
+        }
+
+        Object valueOf(MemberSearchCondition condition) {
+            switch (name) {
+                case "username":
+                    return condition.getUsernameMatch() == UsernameMatch.EXACT
+                        ? condition.getUsername()
+                        : condition.getUsernameMatch().likePattern(condition.getUsername());
+                case "teamName":
+                    return condition.getTeamName();
+                case "ageGoe":
+                    return condition.getAgeGoe();
+                case "ageLoe":
+                    return condition.getAgeLoe();
+                default:
+                    throw new IllegalStateException("unknown search parameter : " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.UsernameMatch;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건의 모양(username, teamName, ageGoe, ageLoe 각각의 유무와 username 을 LIKE 로 비교하는지 여부)별로
+ * 미리 만들어 둔 JPQL 을 보관한다. 요청마다 쿼리 트리를 다시 만들지 않고 파라미터만 바인딩한다.
+ */
+@Component
+public class MemberSearchPlanCache implements MeterBinder {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+    public static final int USERNAME_LIKE = 1 << 4;
+    static final int SHAPE_COUNT = 1 << 5;
+
+    private final EntityManager em;
+    private final boolean enabled;
+    private final AtomicReferenceArray<MemberSearchPlan> plans = new AtomicReferenceArray<>(SHAPE_COUNT);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public MemberSearchPlanCache(EntityManager em,
+                                 @Value("${member.search.plan-cache.enabled:true}") boolean enabled) {
+        this.em = em;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MemberSearchPlan plan(MemberSearchCondition condition) {
+        final int shape = shapeOf(condition);
+        final MemberSearchPlan cached = plans.get(shape);
+        if (cached != null) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+        final MemberSearchPlan built = MemberSearchPlan.build(em, shape);
+        return plans.compareAndSet(shape, null, built) ? built : plans.get(shape);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("member.search.plan.cache", this, MemberSearchPlanCache::getHitCount)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("member.search.plan.cache", this, MemberSearchPlanCache::getMissCount)
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+            if (condition.getUsernameMatch() != UsernameMatch.EXACT) {
+                shape |= USERNAME_LIKE;
+            }
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    static boolean has(int shape, int predicate) {
+        return (shape & predicate) != 0;
+    }
+}
@@ -0,0 +1,17 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+
+import java.util.Collection;
+
+/**
+ * 검색 조건으로 후보 member_id 를 미리 골라 주는 필터.
+ * 후보는 실제 결과를 모두 포함해야 하며(더 많아도 된다), 검색 쿼리는 후보를 PK IN 조건으로 좁힌 뒤 원래 조건을 그대로 적용한다.
+ */
+public interface MemberSearchPreFilter {
+
+    /**
+     * @return 후보 id. 이 조건에 적용할 수 없거나 후보가 너무 많아 이득이 없으면 null
+     */
+    Collection<Long> candidates(MemberSearchCondition condition);
+}
@@ -0,0 +1,35 @@
+package data.jpa.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 조회 결과를 수정하지 않는 쿼리에 거는 힌트.
+ * 읽은 엔티티는 읽기 전용으로 영속성 컨텍스트에 올라가 스냅샷을 만들지 않고 dirty checking 에서도 빠진다.
+ * 쿼리 전 자동 flush 도 하지 않으므로 같은 트랜잭션의 flush 되지 않은 변경은 보이지 않는다.
+ */
+@Component
+public class ReadOnlyQueryHints {
+
+    private final int fetchSize;
+    private final int timeoutMillis;
+
+    public ReadOnlyQueryHints(@Value("${member.query.read-only.fetch-size:500}") int fetchSize,
+                              @Value("${member.query.read-only.timeout:5s}") Duration timeout) {
+        this.fetchSize = fetchSize;
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    public <T> JPAQuery<T> apply(JPAQuery<T> query) {
+        return query
+            .setHint(QueryHints.HINT_READONLY, true)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.SPEC_HINT_TIMEOUT, timeoutMillis)
+            .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+}
@@ -0,0 +1,12 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.entity.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * members 컬렉션을 초기화한 Team 을 돌려준다.
+ */
+public interface TeamMembersRepository {
+    Page<Team> findWithMembers(Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package data.jpa.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.entity.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static data.jpa.querydsl.entity.QTeam.team;
+
+public class TeamMembersRepositoryImpl implements TeamMembersRepository {
+
+    private final JPAQueryFactory jpaQueryFactory;
+
+    public TeamMembersRepositoryImpl(EntityManager em) {
+        this.jpaQueryFactory = new JPAQueryFactory(em);
+    }
+
+    /**
+     * 컬렉션을 fetch join 한 쿼리에 offset/limit 을 주면 Hibernate 가 전체를 읽어 메모리에서 자른다(HHH000104).
+     * 그래서 팀 id 만 먼저 페이징하고, 그 id 들의 팀과 회원을 IN 조건 fetch join 쿼리 한 번으로 읽는다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Team> findWithMembers(Pageable pageable) {
+        final List<Long> teamIds = jpaQueryFactory
+            .select(team.id)
+            .from(team)
+            .orderBy(team.id.asc())
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+
+        final List<Team> content = teamIds.isEmpty() ? Collections.emptyList() : jpaQueryFactory
+            .selectFrom(team)
+            .distinct()
+            .leftJoin(team.members, member).fetchJoin()
+            .where(team.id.in(teamIds))
+            .orderBy(team.id.asc())
+            .fetch();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> jpaQueryFactory.selectFrom(team).fetchCount());
+    }
+}
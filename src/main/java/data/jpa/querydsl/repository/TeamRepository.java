@@ -0,0 +1,22 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.entity.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamMembersRepository {
+
+    String NAME_QUERY_REGION = "team-query";
+
+    @QueryHints({
+        @QueryHint(name = CACHEABLE, value = "true"),
+        @QueryHint(name = CACHE_REGION, value = NAME_QUERY_REGION)
+    })
+    Optional<Team> findByName(String name);
+}
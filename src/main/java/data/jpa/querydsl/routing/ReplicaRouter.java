@@ -0,0 +1,186 @@
+package data.jpa.querydsl.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * primary 와 replica 커넥션 풀을 갖고, 읽기 전용 트랜잭션이 쓸 replica 를 고른다.
+ * 주기적으로 replica 에 접속해 보고 lag-query 로 복제 지연을 재서, 접속이 안 되거나 지연이 max-lag 를 넘는 replica 는 제외한다.
+ * 쓸 수 있는 replica 가 없으면 읽기도 primary 로 보낸다.
+ */
+@Slf4j
+public class ReplicaRouter implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    private final Map<String, ReplicaStatus> statuses = new ConcurrentHashMap<>();
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<String> available = Collections.emptyList();
+
+    public ReplicaRouter(DataSourceProperties primaryProperties, ReplicaRoutingProperties properties) {
+        this.primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.primary.setPoolName(PRIMARY);
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            final String name = replica.getName() != null ? replica.getName() : "replica-" + replicas.size();
+            final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .build();
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            // 기동 시 replica 가 내려가 있어도 애플리케이션은 떠야 한다
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(name, dataSource);
+        }
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.validationTimeoutSeconds = (int) Math.max(1, properties.getValidationTimeout().getSeconds());
+
+        checkReplicas();
+        final long interval = properties.getHealthCheckInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::checkReplicasQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 읽기 전용 트랜잭션이면 쓸 수 있는 replica 를 돌아가며 고르고, 그 밖에는 primary.
+     */
+    String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        final List<String> candidates = available;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    Map<Object, Object> targets() {
+        final Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        return targets;
+    }
+
+    DataSource primary() {
+        return primary;
+    }
+
+    DataSource replica(String name) {
+        return replicas.get(name);
+    }
+
+    /**
+     * 접속 자체가 실패한 replica 는 다음 상태 확인까지 기다리지 않고 바로 제외한다.
+     */
+    void markUnavailable(String name, SQLException e) {
+        log.warn("replica {} is unavailable, falling back to primary", name, e);
+        update(new ReplicaStatus(name, false, null, e.getMessage()));
+    }
+
+    public void checkReplicas() {
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            update(check(replica.getKey(), replica.getValue()));
+        }
+    }
+
+    public List<ReplicaStatus> statuses() {
+        final List<ReplicaStatus> result = new ArrayList<>(replicas.size());
+        for (String name : replicas.keySet()) {
+            result.add(statuses.get(name));
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private ReplicaStatus check(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                return new ReplicaStatus(name, false, null, "connection is not valid");
+            }
+            if (lagQuery == null || lagQuery.isEmpty()) {
+                return new ReplicaStatus(name, true, null, null);
+            }
+            final long lagMillis = lagMillis(connection);
+            return lagMillis <= maxLagMillis
+                ? new ReplicaStatus(name, true, lagMillis, null)
+                : new ReplicaStatus(name, false, lagMillis, "lag " + lagMillis + "ms exceeds " + maxLagMillis + "ms");
+        } catch (SQLException e) {
+            return new ReplicaStatus(name, false, null, e.getMessage());
+        }
+    }
+
+    private long lagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(validationTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    throw new SQLException("lag query returned no rows");
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private synchronized void update(ReplicaStatus status) {
+        final ReplicaStatus previous = statuses.put(status.getName(), status);
+        if (previous == null || previous.isAvailable() != status.isAvailable()) {
+            log.info("replica {} is {} : {}", status.getName(), status.isAvailable() ? "available" : "unavailable", status);
+        }
+        final List<String> names = new ArrayList<>();
+        for (ReplicaStatus each : statuses.values()) {
+            if (each.isAvailable()) {
+                names.add(each.getName());
+            }
+        }
+        Collections.sort(names);
+        available = Collections.unmodifiableList(names);
+    }
+
+    private void checkReplicasQuietly() {
+        try {
+            checkReplicas();
+        } catch (RuntimeException e) {
+            log.warn("replica health check failed", e);
+        }
+    }
+}
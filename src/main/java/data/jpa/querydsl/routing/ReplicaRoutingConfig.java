@@ -0,0 +1,52 @@
+package data.jpa.querydsl.routing;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * datasource.routing.enabled 이면 spring.datasource 를 primary 로, datasource.routing.replicas 를 읽기 전용 replica 로 쓴다.
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))만 replica 로 가고 나머지는 모두 primary 로 간다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties properties) {
+        return new ReplicaRouter(dataSourceProperties, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaRouter);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * replica 가 모두 빠져도 primary 가 읽기를 받으므로 DOWN 이 아니라 상세 정보로만 알린다.
+     */
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRouter replicaRouter) {
+        return () -> {
+            final List<ReplicaStatus> statuses = replicaRouter.statuses();
+            final long available = statuses.stream().filter(ReplicaStatus::isAvailable).count();
+            return Health.up()
+                .withDetail("available", available)
+                .withDetail("replicas", statuses)
+                .build();
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package data.jpa.querydsl.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 트랜잭션의 읽기 전용 여부로 primary/replica 를 고른다.
+ * 트랜잭션 시작 시점에는 읽기 전용 여부가 아직 정해지지 않았으므로 LazyConnectionDataSourceProxy 뒤에 두어
+ * 첫 SQL 이 실행될 때 커넥션을 얻게 해야 한다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+        setTargetDataSources(router.targets());
+        setDefaultTargetDataSource(router.primary());
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+
+    /**
+     * replica 접속에 실패하면 그 replica 를 제외하고 primary 로 다시 시도한다.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        final String key = router.route();
+        if (ReplicaRouter.PRIMARY.equals(key)) {
+            return router.primary().getConnection();
+        }
+        try {
+            return router.replica(key).getConnection();
+        } catch (SQLException e) {
+            router.markUnavailable(key, e);
+            return router.primary().getConnection();
+        }
+    }
+}
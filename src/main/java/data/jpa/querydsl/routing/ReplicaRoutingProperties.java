@@ -0,0 +1,30 @@
+package data.jpa.querydsl.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration validationTimeout = Duration.ofSeconds(1);
+    /**
+     * 복제 지연(ms)을 한 행 한 컬럼으로 돌려주는 쿼리. 비어 있으면 지연을 재지 않는다.
+     */
+    private String lagQuery;
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,23 @@
+package data.jpa.querydsl.routing;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 마지막 상태 확인 결과. lagMillis 는 lag-query 가 없거나 확인에 실패하면 null 이다.
+ */
+@Getter
+@ToString
+public class ReplicaStatus {
+    private final String name;
+    private final boolean available;
+    private final Long lagMillis;
+    private final String reason;
+
+    public ReplicaStatus(String name, boolean available, Long lagMillis, String reason) {
+        this.name = name;
+        this.available = available;
+        this.lagMillis = lagMillis;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,166 @@
+package data.jpa.querydsl.service;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 검색 결과를 gzip 으로 압축한 CSV 로 내보낸다.
+ * 결과는 fetch-size 건씩 커서(scroll)로 읽으면서 바로 압축 스트림에 쓰고, DTO 프로젝션이라 영속성 컨텍스트에 쌓이는 엔티티가 없다.
+ * 그래서 메모리 사용량은 결과 건수와 무관하게 fetch-size 와 버퍼 크기로 정해진다.
+ */
+@Slf4j
+@Service
+public class MemberCsvExportService {
+
+    static final String HEADER = "memberId,username,age,teamId,teamName";
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final int fetchSize;
+    private final int bufferSize;
+    private final int compressionLevel;
+
+    public MemberCsvExportService(MemberJpaRepository memberJpaRepository,
+                                  @Value("${member.export.fetch-size:1000}") int fetchSize,
+                                  @Value("${member.export.buffer-size:65536}") int bufferSize,
+                                  @Value("${member.export.compression-level:1}") int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("member.export.compression-level must be between 0 and 9");
+        }
+        this.memberJpaRepository = memberJpaRepository;
+        this.fetchSize = fetchSize;
+        this.bufferSize = bufferSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * out 은 닫지 않고 gzip 트레일러까지 쓴 뒤 flush 만 한다.
+     */
+    @Transactional(readOnly = true)
+    public MemberExportReport export(MemberSearchCondition condition, OutputStream out) throws IOException {
+        final long start = System.nanoTime();
+        final CountingOutputStream compressed = new CountingOutputStream(out);
+        final LevelGzipOutputStream gzip = new LevelGzipOutputStream(compressed, bufferSize, compressionLevel);
+        final CountingOutputStream csv = new CountingOutputStream(gzip);
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(csv, StandardCharsets.UTF_8), bufferSize);
+        final long[] rows = {0};
+        try {
+            writer.write(HEADER);
+            writer.write('\n');
+            memberJpaRepository.searchStream(condition, fetchSize, dto -> {
+                try {
+                    writeRow(writer, dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            writer.flush();
+            gzip.finish();
+            compressed.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // out 을 닫지 않으므로 close 대신 네이티브 메모리를 잡고 있는 Deflater 만 직접 해제한다
+            gzip.end();
+        }
+
+        final MemberExportReport report =
+            new MemberExportReport(rows[0], csv.count, compressed.count, System.nanoTime() - start);
+        log.info("member csv export finished : {}", report);
+        return report;
+    }
+
+    private static void writeRow(Writer writer, MemberTeamDto dto) throws IOException {
+        writer.write(Long.toString(dto.getMemberId()));
+        writer.write(',');
+        writeField(writer, dto.getUsername());
+        writer.write(',');
+        writer.write(Integer.toString(dto.getAge()));
+        writer.write(',');
+        if (dto.getTeamId() != null) {
+            writer.write(Long.toString(dto.getTeamId()));
+        }
+        writer.write(',');
+        writeField(writer, dto.getTeamName());
+        writer.write('\n');
+    }
+
+    /**
+     * 쉼표, 큰따옴표, 줄바꿈이 있으면 큰따옴표로 감싸고 안의 큰따옴표는 두 번 쓴다. null 은 빈 필드.
+     */
+    static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * 압축 수준을 정할 수 있고, 스트림을 닫지 않고도 Deflater 를 해제할 수 있는 GZIPOutputStream.
+     */
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+        private LevelGzipOutputStream(OutputStream out, int size, int level) throws IOException {
+            super(out, size);
+            def.setLevel(level);
+        }
+
+        private void end() {
+            def.end();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
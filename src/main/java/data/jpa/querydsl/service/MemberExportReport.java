@@ -0,0 +1,22 @@
+package data.jpa.querydsl.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberExportReport {
+    private final long rows;
+    private final long csvBytes;
+    private final long gzipBytes;
+    private final long elapsedMillis;
+    private final double csvMegabytesPerSecond;
+
+    public MemberExportReport(long rows, long csvBytes, long gzipBytes, long elapsedNanos) {
+        this.rows = rows;
+        this.csvBytes = csvBytes;
+        this.gzipBytes = gzipBytes;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.csvMegabytesPerSecond = elapsedNanos > 0 ? csvBytes * 1000.0 / elapsedNanos : 0;
+    }
+}
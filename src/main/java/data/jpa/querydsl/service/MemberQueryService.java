@@ -0,0 +1,36 @@
+package data.jpa.querydsl.service;
+
+import data.jpa.querydsl.dto.MemberDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 조회(GET) 요청용 서비스. 엔티티는 읽기 전용 쿼리로 읽어 스냅샷과 dirty checking 비용을 들이지 않는다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+    private final MemberJpaRepository memberJpaRepository;
+
+    public List<MemberDto> findAll() {
+        return toDtos(memberJpaRepository.findAllReadOnly());
+    }
+
+    public List<MemberDto> findByUsername(String username) {
+        return toDtos(memberJpaRepository.findByUsernameReadOnly(username));
+    }
+
+    private static List<MemberDto> toDtos(List<Member> members) {
+        return members.stream()
+            .map(member -> new MemberDto(member.getUsername(), member.getAge()))
+            .collect(Collectors.toList());
+    }
+}
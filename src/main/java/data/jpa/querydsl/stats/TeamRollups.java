@@ -0,0 +1,115 @@
+package data.jpa.querydsl.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 팀별 회원 수, 나이 합계, 나이별 회원 수. 나이별 회원 수가 있으므로 삭제가 있어도 최소/최대를 다시 구할 수 있다.
+ * 스레드 안전하지 않으므로 바깥 락 안에서만 쓴다.
+ */
+final class TeamRollups {
+
+    // HashMap 은 null 키(팀 없음)를 허용한다
+    private final Map<Long, Rollup> byTeam = new HashMap<>();
+    private final Map<Long, String> teamNames = new HashMap<>();
+
+    void add(Long teamId, int age, long count) {
+        byTeam.computeIfAbsent(teamId, key -> new Rollup()).add(age, count);
+    }
+
+    void remove(Long teamId, int age) {
+        final Rollup rollup = byTeam.get(teamId);
+        if (rollup != null && rollup.add(age, -1) == 0) {
+            byTeam.remove(teamId);
+        }
+    }
+
+    void nameTeam(Long teamId, String name) {
+        if (name != null) {
+            teamNames.put(teamId, name);
+        } else {
+            teamNames.remove(teamId);
+        }
+    }
+
+    int teamCount() {
+        return byTeam.size();
+    }
+
+    /**
+     * 회원이 없는 팀도 이름이 알려져 있으면 0 건으로 포함한다.
+     */
+    List<TeamStatistics> statistics(int bucketWidth) {
+        final Set<Long> teamIds = new HashSet<>(teamNames.keySet());
+        teamIds.addAll(byTeam.keySet());
+        final List<TeamStatistics> result = new ArrayList<>(teamIds.size());
+        for (Long teamId : teamIds) {
+            final Rollup rollup = byTeam.get(teamId);
+            final String name = teamNames.get(teamId);
+            result.add(rollup != null ? rollup.toStatistics(teamId, name, bucketWidth)
+                : new TeamStatistics(teamId, name, 0, 0, null, null, new LinkedHashMap<>()));
+        }
+        return result;
+    }
+
+    TeamStatistics statistics(Long teamId, int bucketWidth) {
+        final Rollup rollup = byTeam.get(teamId);
+        if (rollup == null) {
+            return teamNames.containsKey(teamId)
+                ? new TeamStatistics(teamId, teamNames.get(teamId), 0, 0, null, null, new LinkedHashMap<>())
+                : null;
+        }
+        return rollup.toStatistics(teamId, teamNames.get(teamId), bucketWidth);
+    }
+
+    /**
+     * @return 회원 집계가 서로 다른 팀 id
+     */
+    List<Long> differences(TeamRollups other) {
+        final Set<Long> teamIds = new HashSet<>(byTeam.keySet());
+        teamIds.addAll(other.byTeam.keySet());
+        final List<Long> mismatched = new ArrayList<>();
+        for (Long teamId : teamIds) {
+            final Rollup mine = byTeam.get(teamId);
+            final Rollup theirs = other.byTeam.get(teamId);
+            if (mine == null || theirs == null || !mine.ageCounts.equals(theirs.ageCounts)) {
+                mismatched.add(teamId);
+            }
+        }
+        return mismatched;
+    }
+
+    private static final class Rollup {
+        private long count;
+        private long ageSum;
+        private final TreeMap<Integer, Long> ageCounts = new TreeMap<>();
+
+        long add(int age, long delta) {
+            final long remaining = ageCounts.merge(age, delta, Long::sum);
+            if (remaining <= 0) {
+                ageCounts.remove(age);
+            }
+            count += delta;
+            ageSum += age * delta;
+            return count;
+        }
+
+        TeamStatistics toStatistics(Long teamId, String name, int bucketWidth) {
+            final Map<Integer, Long> histogram = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Long> entry : ageCounts.entrySet()) {
+                final int bucket = Math.floorDiv(entry.getKey(), bucketWidth) * bucketWidth;
+                histogram.merge(bucket, entry.getValue(), Long::sum);
+            }
+            return new TeamStatistics(teamId, name, count, ageSum,
+                ageCounts.isEmpty() ? null : ageCounts.firstKey(),
+                ageCounts.isEmpty() ? null : ageCounts.lastKey(),
+                histogram);
+        }
+    }
+}
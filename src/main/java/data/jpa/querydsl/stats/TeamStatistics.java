@@ -0,0 +1,33 @@
+package data.jpa.querydsl.stats;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * 팀 하나의 집계. 팀이 없는 회원은 teamId, teamName 이 null 인 한 건으로 모인다.
+ * ageHistogram 은 구간 시작 나이 -> 회원 수이며 회원이 있는 구간만 담는다.
+ */
+@Getter
+@ToString
+public class TeamStatistics {
+    private final Long teamId;
+    private final String teamName;
+    private final long memberCount;
+    private final double averageAge;
+    private final Integer minAge;
+    private final Integer maxAge;
+    private final Map<Integer, Long> ageHistogram;
+
+    public TeamStatistics(Long teamId, String teamName, long memberCount, long ageSum,
+                          Integer minAge, Integer maxAge, Map<Integer, Long> ageHistogram) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.averageAge = memberCount > 0 ? (double) ageSum / memberCount : 0;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.ageHistogram = ageHistogram;
+    }
+}
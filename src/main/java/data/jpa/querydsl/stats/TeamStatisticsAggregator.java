@@ -0,0 +1,274 @@
+package data.jpa.querydsl.stats;
+
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.event.MemberChangedEvent;
+import data.jpa.querydsl.event.MemberSnapshot;
+import data.jpa.querydsl.event.TeamChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 팀별 회원 통계를 메모리에 미리 집계해 두고 커밋된 회원/팀 변경을 건건이 반영한다. 조회 비용은 팀 수에 비례한다.
+ *
+ * 벌크 DML 과 이전 상태를 모르는 update 는 어느 팀의 어떤 나이가 바뀌었는지 알 수 없으므로
+ * 트랜잭션이 끝난 뒤 member 테이블을 group by 로 다시 집계한다. 다시 집계하는 동안에는 이전 값이 보인다.
+ * verify-interval 마다 다시 집계한 결과와 비교해서 어긋나 있으면 교체한다.
+ */
+@Slf4j
+@Component
+public class TeamStatisticsAggregator implements DisposableBean {
+
+    private static final String SELECT_TEAMS = "select team_id, name from team";
+    private static final String SELECT_AGE_COUNTS = "select team_id, age, count(*) from member group by team_id, age";
+    private static final int MAX_LOAD_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int bucketWidth;
+    private final long verifyIntervalMillis;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object recomputeMonitor = new Object();
+    private final AtomicBoolean recomputeScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "team-statistics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // lock 으로 보호
+    private TeamRollups current = new TeamRollups();
+    // 반영한 변경 수와, 변경을 발행했지만 아직 끝나지 않은 트랜잭션 수. recompute 가 집계 도중의 변경을 알아챈다
+    private final AtomicLong changeVersion = new AtomicLong();
+    private final AtomicInteger transactionsInFlight = new AtomicInteger();
+    private final Object inFlightKey = new Object();
+
+    public TeamStatisticsAggregator(JdbcTemplate jdbcTemplate,
+                                    @Value("${team.statistics.histogram-bucket-width:10}") int bucketWidth,
+                                    @Value("${team.statistics.verify-interval:10m}") Duration verifyInterval) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("team.statistics.histogram-bucket-width must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketWidth = bucketWidth;
+        this.verifyIntervalMillis = verifyInterval.toMillis();
+    }
+
+    public List<TeamStatistics> statistics() {
+        final List<TeamStatistics> statistics;
+        lock.readLock().lock();
+        try {
+            statistics = current.statistics(bucketWidth);
+        } finally {
+            lock.readLock().unlock();
+        }
+        statistics.sort(Comparator.comparing(TeamStatistics::getTeamId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return statistics;
+    }
+
+    /**
+     * @return 회원도 이름도 알려지지 않은 팀이면 null
+     */
+    public TeamStatistics statistics(Long teamId) {
+        lock.readLock().lock();
+        try {
+            return current.statistics(teamId, bucketWidth);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recompute();
+        if (verifyIntervalMillis > 0) {
+            executor.scheduleWithFixedDelay(this::verifyAndRepair,
+                verifyIntervalMillis, verifyIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * member/team 을 다시 집계해 교체한다. 집계하는 동안 반영된 변경이나 커밋 중인 변경이 있으면
+     * 새 집계에 이미 들어 있는지 알 수 없으므로 버리고 다시 읽는다. 계속 변경이 들어오면
+     * MAX_LOAD_ATTEMPTS 번째 집계로 교체하고, 어긋난 부분은 verify-interval 의 비교에서 고친다.
+     */
+    public void recompute() {
+        synchronized (recomputeMonitor) {
+            final long start = System.nanoTime();
+            TeamRollups loaded;
+            int attempts = 0;
+            boolean quiet;
+            do {
+                attempts++;
+                final long versionBefore = changeVersion.get();
+                loaded = read();
+                lock.writeLock().lock();
+                try {
+                    quiet = changeVersion.get() == versionBefore && transactionsInFlight.get() == 0;
+                    if (quiet || attempts == MAX_LOAD_ATTEMPTS) {
+                        current = loaded;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (!quiet && attempts < MAX_LOAD_ATTEMPTS);
+            if (!quiet) {
+                log.warn("team statistics kept changing while recomputing, using the last load");
+            }
+            log.info("team statistics recomputed in {} ms (teams={}, attempts={})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), loaded.teamCount(), attempts);
+        }
+    }
+
+    /**
+     * 교체하지 않고 비교만 한다.
+     */
+    public TeamStatisticsVerification verify() {
+        final TeamRollups fresh = read();
+        lock.readLock().lock();
+        try {
+            return new TeamStatisticsVerification(fresh.teamCount(), current.differences(fresh));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 커밋 전에 발행된 변경을 트랜잭션 단위로 센다. 커밋 후 반영(afterCommit)이 끝난 뒤 afterCompletion 에서 뺀다.
+     */
+    @EventListener({MemberChangedEvent.class, TeamChangedEvent.class})
+    public void onChangePublished() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(inFlightKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(inFlightKey, Boolean.TRUE);
+        transactionsInFlight.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(inFlightKey);
+                transactionsInFlight.decrementAndGet();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        final MemberSnapshot before = event.getBefore();
+        final MemberSnapshot after = event.getAfter();
+        if (before == null && event.getType() == MemberChangedEvent.Type.UPDATED) {
+            scheduleRecompute();
+            return;
+        }
+        change(rollups -> {
+            if (before != null) {
+                rollups.remove(before.getTeamId(), before.getAge());
+            }
+            if (after != null) {
+                rollups.add(after.getTeamId(), after.getAge(), 1);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        final Long teamId = event.getTeamId();
+        final String name = event.getType() == TeamChangedEvent.Type.DELETED ? null : event.getNewName();
+        change(rollups -> rollups.nameTeam(teamId, name));
+    }
+
+    /**
+     * 벌크 이벤트는 SQL 실행 전에 발행되므로 트랜잭션이 끝난 뒤(롤백 포함) 다시 집계한다.
+     */
+    @EventListener
+    public void onBulkChange(BulkChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleRecompute();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TeamStatisticsAggregator.this);
+                scheduleRecompute();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private TeamRollups read() {
+        final TeamRollups loaded = new TeamRollups();
+        jdbcTemplate.query(SELECT_TEAMS, (RowCallbackHandler) rs -> loaded.nameTeam(rs.getLong(1), rs.getString(2)));
+        jdbcTemplate.query(SELECT_AGE_COUNTS, (RowCallbackHandler) rs -> {
+            final long teamId = rs.getLong(1);
+            loaded.add(rs.wasNull() ? null : teamId, rs.getInt(2), rs.getLong(3));
+        });
+        return loaded;
+    }
+
+    private void verifyAndRepair() {
+        try {
+            final TeamStatisticsVerification verification = verify();
+            if (!verification.isConsistent()) {
+                log.warn("team statistics are inconsistent, recomputing : {}", verification);
+                recompute();
+            }
+        } catch (RuntimeException e) {
+            log.warn("team statistics verification failed", e);
+        }
+    }
+
+    private void change(Consumer<TeamRollups> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            changeVersion.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleRecompute() {
+        if (!recomputeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            recomputeScheduled.set(false);
+            try {
+                recompute();
+            } catch (RuntimeException e) {
+                log.warn("team statistics recompute failed", e);
+            }
+        });
+    }
+}
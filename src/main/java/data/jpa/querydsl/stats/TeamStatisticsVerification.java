@@ -0,0 +1,23 @@
+package data.jpa.querydsl.stats;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 메모리 집계와 member 테이블을 다시 집계한 결과의 비교. 검증 도중 커밋된 변경 때문에 일시적으로 어긋날 수 있다.
+ */
+@Getter
+@ToString
+public class TeamStatisticsVerification {
+    private final int teams;
+    private final List<Long> mismatchedTeamIds;
+    private final boolean consistent;
+
+    public TeamStatisticsVerification(int teams, List<Long> mismatchedTeamIds) {
+        this.teams = teams;
+        this.mismatchedTeamIds = mismatchedTeamIds;
+        this.consistent = mismatchedTeamIds.isEmpty();
+    }
+}
@@ -0,0 +1,76 @@
+package data.jpa.querydsl;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 테스트 트랜잭션 없이 공유 DB 에 데이터를 커밋해야 하는 테스트용 확장.
+ * 테스트 전에 있던 member/team id 를 기억해 두고, 테스트가 실패해도 끝나면 그 뒤에 생긴 행을 모두 지운다.
+ * id 크기가 아니라 목록으로 비교하므로 컨텍스트마다 따로 할당받은 id 블록이 섞여도 남기지 않는다.
+ * 엔티티 단위로 지우므로 인메모리 인덱스와 읽기 모델도 변경 이벤트로 함께 정리된다.
+ *
+ * <pre>
+ * &#64;RegisterExtension
+ * CommittedFixture fixture = new CommittedFixture();
+ * </pre>
+ */
+public class CommittedFixture implements BeforeEachCallback, AfterEachCallback {
+
+    private TransactionTemplate transactionTemplate;
+    private EntityManager em;
+    private Set<Long> memberIds;
+    private Set<Long> teamIds;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        final ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        transactionTemplate = new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class));
+        em = applicationContext.getBean(EntityManager.class);
+        execute(status -> {
+            memberIds = new HashSet<>(em.createQuery("select m.id from Member m", Long.class).getResultList());
+            teamIds = new HashSet<>(em.createQuery("select t.id from Team t", Long.class).getResultList());
+            return null;
+        });
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (memberIds == null) {
+            return;
+        }
+        execute(status -> {
+            for (Member member : em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .getResultList()) {
+                if (!memberIds.contains(member.getId())) {
+                    em.remove(member);
+                } else if (member.getTeam() != null && !teamIds.contains(member.getTeam().getId())) {
+                    // 원래 있던 회원이 테스트에서 만든 팀으로 옮겨졌으면 팀을 지울 수 있게 떼어 낸다
+                    member.setTeam(null);
+                }
+            }
+            em.flush();
+            for (Team team : em.createQuery("select t from Team t", Team.class).getResultList()) {
+                if (!teamIds.contains(team.getId())) {
+                    em.remove(team);
+                }
+            }
+            return null;
+        });
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        return transactionTemplate.execute(action);
+    }
+}
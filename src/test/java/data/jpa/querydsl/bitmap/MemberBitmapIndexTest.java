@@ -0,0 +1,106 @@
+package data.jpa.querydsl.bitmap;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 후보 id 는 커밋 이후에 갱신되므로 데이터는 {@link CommittedFixture} 로 커밋한다.
+ */
+@SpringBootTest(properties = {"member.search.bitmap.enabled=true", "member.search.bitmap.age-bucket-width=10"})
+class MemberBitmapIndexTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberBitmapIndex memberBitmapIndex;
+
+    Long teamId;
+    List<Long> memberIds;
+
+    @BeforeEach
+    public void setUp() {
+        memberBitmapIndex.reload();
+        memberIds = new ArrayList<>();
+        fixture.execute(status -> {
+            final Team team = new Team("bitmapTeam");
+            em.persist(team);
+            teamId = team.getId();
+            for (int i = 0; i < 4; i++) {
+                final Member member = new Member("bitmapMember" + i, 10 + i * 10, team);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void candidatesFollowCommittedChanges() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bitmapTeam");
+        condition.setAgeGoe(25);
+        condition.setAgeLoe(35);
+
+        // 나이 구간 [20,30), [30,40) 에 걸친 후보는 실제 결과보다 많을 수 있다
+        assertThat(memberBitmapIndex.candidates(condition)).containsExactlyInAnyOrder(memberIds.get(1), memberIds.get(2));
+
+        fixture.execute(status -> {
+            em.find(Member.class, memberIds.get(1)).setAge(50);
+            return null;
+        });
+        assertThat(memberBitmapIndex.candidates(condition)).containsExactly(memberIds.get(2));
+
+        condition.setTeamName("noSuchTeam");
+        assertThat(memberBitmapIndex.candidates(condition)).isEmpty();
+    }
+
+    @Test
+    public void notUsedWithoutIndexedCondition() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("bitmapMember0");
+
+        assertThat(memberBitmapIndex.candidates(condition)).isNull();
+    }
+
+    @Test
+    public void bypassedUntilReloadAfterBulkChange() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bitmapTeam");
+
+        // 다시 적재는 트랜잭션이 끝난 뒤 예약되므로 트랜잭션 안에서는 반드시 우회된다
+        final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> {
+            assertThat(memberBitmapIndex.candidates(condition)).isNotNull();
+            memberBitmapIndex.onBulkChange(new BulkChangedEvent(BulkChangedEvent.MEMBER_TABLE));
+            assertThat(memberBitmapIndex.candidates(condition)).isNull();
+            return null;
+        });
+
+        memberBitmapIndex.reload();
+        assertThat(memberBitmapIndex.candidates(condition)).containsExactlyInAnyOrderElementsOf(memberIds);
+    }
+}
@@ -0,0 +1,133 @@
+package data.jpa.querydsl.bulk;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 청크마다 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션을 쓸 수 없다.
+ */
+@SpringBootTest(properties = "member.bulk.chunk-size=2")
+class MemberBulkServiceTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkService memberBulkService;
+
+    Team teamA;
+    Team teamB;
+    Long firstMemberId;
+
+    @BeforeEach
+    public void setUp() {
+        fixture.execute(status -> {
+            teamA = new Team("bulkTeamA");
+            teamB = new Team("bulkTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 5; i++) {
+                final Member member = new Member("bulkMember", 10 + i, teamA);
+                em.persist(member);
+                if (i == 0) {
+                    firstMemberId = member.getId();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void adjustAgeRefreshesManagedMembers() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("bulkMember");
+
+        fixture.execute(status -> {
+            final Member managed = em.find(Member.class, firstMemberId);
+            assertThat(managed.getAge()).isEqualTo(10);
+
+            final BulkOperationReport report = memberBulkService.adjustAge(condition, 5);
+
+            assertThat(report.getAffectedRows()).isEqualTo(5);
+            assertThat(report.getChunkCount()).isEqualTo(3);
+            assertThat(managed.getAge()).isEqualTo(15);
+            return null;
+        });
+    }
+
+    @Test
+    public void sparseIdsDoNotCreateEmptyChunks() {
+        fixture.execute(status -> {
+            for (int i = 0; i < 3; i++) {
+                em.persist(new Member("bulkSparse", 10));
+                for (int j = 0; j < 10; j++) {
+                    em.persist(new Member("bulkFiller", 10));
+                }
+            }
+            return null;
+        });
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("bulkSparse");
+
+        final BulkOperationReport report = memberBulkService.adjustAge(condition, 1);
+
+        // 대상 id 사이에 다른 회원이 끼어 있어도 대상 3명을 2명씩 끊은 구간만 실행한다
+        assertThat(report.getAffectedRows()).isEqualTo(3);
+        assertThat(report.getChunkCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void reassignTeamByTeamNameAndAge() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bulkTeamA");
+        condition.setAgeGoe(13);
+
+        final BulkOperationReport report = memberBulkService.reassignTeam(condition, teamB.getId());
+
+        assertThat(report.getAffectedRows()).isEqualTo(2);
+        final Long count = fixture.execute(status -> em
+            .createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+            .setParameter("teamId", teamB.getId())
+            .getSingleResult());
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    public void deleteDetachesManagedMembers() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("bulkMember");
+        condition.setAgeLoe(11);
+
+        fixture.execute(status -> {
+            final Member managed = em.find(Member.class, firstMemberId);
+
+            final BulkOperationReport report = memberBulkService.delete(condition);
+
+            assertThat(report.getAffectedRows()).isEqualTo(2);
+            assertThat(em.contains(managed)).isFalse();
+            return null;
+        });
+    }
+
+    @Test
+    public void emptyConditionIsRejected() {
+        assertThatThrownBy(() -> memberBulkService.delete(new MemberSearchCondition()))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+}
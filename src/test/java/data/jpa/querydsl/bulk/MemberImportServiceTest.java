@@ -0,0 +1,176 @@
+package data.jpa.querydsl.bulk;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.InvalidRequestException;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangedEvent;
+import data.jpa.querydsl.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * import 는 구간마다 별도 트랜잭션으로 커밋한다. 구간마다 member_team 을 맞추는지 보기 위해 읽기 모델을 켠다.
+ */
+@SpringBootTest(properties = {
+    "member.import.commit-interval=2",
+    "member.import.batch-size=2",
+    "member.search.read-model.enabled=true"})
+class MemberImportServiceTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberImportService memberImportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    BulkEventCollector bulkEventCollector;
+
+    Team existing;
+
+    @BeforeEach
+    public void setUp() {
+        fixture.execute(status -> {
+            existing = new Team("importTeamA");
+            em.persist(existing);
+            return null;
+        });
+    }
+
+    @Test
+    public void importCsv() throws Exception {
+        final String csv = "username,age,teamName\n"
+            + "importMember1,10,importTeamA\n"
+            + "\"importMember2\",20,importTeamB\n"
+            + "importMember3,30,importTeamB\n"
+            + "importMember4,40,\n"
+            + "importMember5,50\n";
+
+        final MemberImportReport report = memberImportService.importMembers(body(csv), MemberImportFormat.CSV, null);
+
+        assertThat(report.getImportedRows()).isEqualTo(5);
+        assertThat(report.getCreatedTeams()).isEqualTo(1);
+        assertThat(report.getCommitCount()).isEqualTo(3);
+        assertThat(teamNames()).containsExactly(
+            "importMember1:importTeamA", "importMember2:importTeamB", "importMember3:importTeamB",
+            "importMember4:null", "importMember5:null");
+        final Long teamB = fixture.execute(status -> em
+            .createQuery("select count(t) from Team t where t.name = 'importTeamB'", Long.class)
+            .getSingleResult());
+        assertThat(teamB).isEqualTo(1);
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        final String ndjson = "{\"username\":\"importMember1\",\"age\":10,\"teamName\":\"importTeamA\"}\n"
+            + "{\"username\":\"importMember2\",\"age\":20}\n";
+
+        final MemberImportReport report =
+            memberImportService.importMembers(body(ndjson), MemberImportFormat.NDJSON, null);
+
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getCreatedTeams()).isZero();
+        assertThat(teamNames()).containsExactly("importMember1:importTeamA", "importMember2:null");
+    }
+
+    @Test
+    public void createdTeamIsVisibleToCachedNameLookup() throws Exception {
+        // 없는 이름 조회 결과가 쿼리 캐시에 남는다
+        assertThat(teamRepository.findByName("importTeamNew")).isEmpty();
+
+        memberImportService.importMembers(body("importMember1,10,importTeamNew\n"), MemberImportFormat.CSV, null);
+
+        assertThat(teamRepository.findByName("importTeamNew")).isPresent();
+    }
+
+    @Test
+    public void invalidRowStopsImportAndKeepsCommittedRows() {
+        final String csv = "importMember1,10\nimportMember2,20\nimportMember3,old\n";
+
+        assertThatThrownBy(() -> memberImportService.importMembers(body(csv), MemberImportFormat.CSV, null))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("line 3");
+        assertThat(teamNames()).containsExactly("importMember1:null", "importMember2:null");
+    }
+
+    @Test
+    public void eachCommitAnnouncesOnlyItsImportedIds() throws Exception {
+        final String csv = "importMember1,10,importTeamA\nimportMember2,20,importTeamB\nimportMember3,30,importTeamB\n";
+        bulkEventCollector.events.clear();
+
+        memberImportService.importMembers(body(csv), MemberImportFormat.CSV, null);
+
+        // insert 문마다가 아니라 커밋마다 하나씩, team 이벤트 없이 넣은 member id 구간만 발행한다
+        final List<Long> ids = fixture.execute(status -> em
+            .createQuery("select m.id from Member m where m.username like 'importMember%' order by m.username",
+                Long.class)
+            .getResultList());
+        assertThat(bulkEventCollector.events)
+            .extracting("table", "minMemberId", "maxMemberId")
+            .containsExactly(
+                tuple(BulkChangedEvent.MEMBER_TABLE, ids.get(0), ids.get(1)),
+                tuple(BulkChangedEvent.MEMBER_TABLE, ids.get(2), ids.get(2)));
+
+        assertThat(jdbcTemplate.queryForList("select concat(concat(username, ':'), coalesce(team_name, 'null'))"
+            + " from member_team where username like 'importMember%' order by username", String.class))
+            .isEqualTo(teamNames());
+    }
+
+    private List<String> teamNames() {
+        return fixture.execute(status -> em
+            .createQuery("select concat(concat(m.username, ':'), coalesce(t.name, 'null'))"
+                + " from Member m left join m.team t where m.username like 'importMember%' order by m.username",
+                String.class)
+            .getResultList());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        BulkEventCollector bulkEventCollector() {
+            return new BulkEventCollector();
+        }
+    }
+
+    static class BulkEventCollector {
+
+        final List<BulkChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void collect(BulkChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
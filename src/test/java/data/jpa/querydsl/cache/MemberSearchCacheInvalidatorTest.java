@@ -0,0 +1,74 @@
+package data.jpa.querydsl.cache;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.repository.MemberSearchCountCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCacheInvalidatorTest {
+
+    MemberSearchResultCache resultCache = new MemberSearchResultCache(true, 1024 * 1024);
+    MemberSearchCountCache countCache = new MemberSearchCountCache(Duration.ofMinutes(1), 100);
+    MemberSearchCacheInvalidator invalidator = new MemberSearchCacheInvalidator(resultCache, countCache);
+    AtomicInteger loadCount = new AtomicInteger();
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(invalidator);
+    }
+
+    @Test
+    public void changeOutsideTransactionInvalidatesImmediately() {
+        search();
+
+        invalidator.onChange();
+        search();
+
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void changesInTransactionInvalidateOnceAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        search();
+        assertThat(countCache.get(condition, () -> 1)).isEqualTo(1);
+
+        for (int i = 0; i < 100; i++) {
+            invalidator.onChange();
+        }
+        // 커밋 전에는 다른 트랜잭션이 보는 결과가 그대로이므로 캐시를 유지한다
+        search();
+        assertThat(loadCount.get()).isEqualTo(1);
+
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        search();
+        assertThat(loadCount.get()).isEqualTo(2);
+        assertThat(countCache.get(condition, () -> 2)).isEqualTo(2);
+    }
+
+    private void search() {
+        resultCache.list("search", condition, () -> {
+            loadCount.incrementAndGet();
+            return Collections.singletonList(new MemberTeamDto(1L, "member1", 10, null, null));
+        });
+    }
+}
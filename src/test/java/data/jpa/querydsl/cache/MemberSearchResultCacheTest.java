@@ -0,0 +1,93 @@
+package data.jpa.querydsl.cache;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSearchResultCacheTest {
+
+    MemberSearchResultCache cache = new MemberSearchResultCache(true, 1024 * 1024);
+
+    @Test
+    public void cacheAndInvalidate() {
+        AtomicInteger loadCount = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        cache.list("search", condition, () -> load(loadCount));
+        condition.setTeamName("teamA");
+        final List<MemberTeamDto> result = cache.list("search", condition, () -> load(loadCount));
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(result).extracting("username").containsExactly("member1");
+        assertThat(cache.stats().getHitCount()).isEqualTo(1);
+        assertThat(cache.stats().getEstimatedBytes()).isGreaterThan(0);
+
+        cache.invalidateAll();
+        cache.list("search", condition, () -> load(loadCount));
+
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void keyIsCopiedFromCondition() {
+        AtomicInteger loadCount = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        cache.list("search", condition, () -> load(loadCount));
+        condition.setTeamName("teamB");
+        cache.list("search", condition, () -> load(loadCount));
+
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void callersDoNotShareCachedDtos() {
+        AtomicInteger loadCount = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        final List<MemberTeamDto> loaded = cache.list("search", condition, () -> load(loadCount));
+        loaded.get(0).setUsername("changed");
+        final List<MemberTeamDto> first = cache.list("search", condition, () -> load(loadCount));
+        first.get(0).setUsername("changed");
+        final List<MemberTeamDto> second = cache.list("search", condition, () -> load(loadCount));
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(second).extracting("username").containsExactly("member1");
+        assertThatThrownBy(() -> second.add(new MemberTeamDto(2L, "member2", 20, null, null)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void pagesAreCopied() {
+        AtomicInteger loadCount = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        final PageRequest pageRequest = PageRequest.of(0, 10);
+
+        cache.page("searchSimple", condition, pageRequest, () -> new PageImpl<>(load(loadCount), pageRequest, 1))
+            .getContent().get(0).setUsername("changed");
+        final Page<MemberTeamDto> cached = cache.page("searchSimple", condition, pageRequest,
+            () -> new PageImpl<>(load(loadCount), pageRequest, 1));
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(cached.getTotalElements()).isEqualTo(1);
+        assertThat(cached.getContent()).extracting("username").containsExactly("member1");
+    }
+
+    private List<MemberTeamDto> load(AtomicInteger loadCount) {
+        loadCount.incrementAndGet();
+        return new ArrayList<>(Collections.singletonList(new MemberTeamDto(1L, "member1", 10, 1L, "teamA")));
+    }
+}
@@ -0,0 +1,112 @@
+package data.jpa.querydsl.columnar;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.MemberCursorPage;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 컬럼 배열은 커밋 이후에 갱신된다.
+ */
+@SpringBootTest(properties = "member.search.columnar.enabled=true")
+class MemberColumnarRepositoryTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberColumnarRepository memberColumnarRepository;
+
+    @Autowired
+    MemberColumnarIndex memberColumnarIndex;
+
+    Long teamId;
+    Long firstMemberId;
+
+    @BeforeEach
+    public void setUp() {
+        fixture.execute(status -> {
+            final Team team = new Team("columnarTeam");
+            em.persist(team);
+            teamId = team.getId();
+            for (int i = 0; i < 4; i++) {
+                final Member member = new Member("columnarMember" + i, 40 - i * 10, team);
+                em.persist(member);
+                if (i == 0) {
+                    firstMemberId = member.getId();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void searchReflectsCommittedChanges() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("columnarTeam");
+        condition.setAgeGoe(20);
+
+        assertThat(memberColumnarRepository.search(condition))
+            .extracting("username")
+            .containsExactly("columnarMember0", "columnarMember1", "columnarMember2");
+
+        fixture.execute(status -> {
+            em.find(Team.class, teamId).setName("renamedColumnarTeam");
+            em.remove(em.find(Member.class, firstMemberId));
+            return null;
+        });
+
+        assertThat(memberColumnarRepository.search(condition)).isEmpty();
+        condition.setTeamName("renamedColumnarTeam");
+        final Page<MemberTeamDto> page = memberColumnarRepository.searchComplex(condition, PageRequest.of(0, 1));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting("username").containsExactly("columnarMember1");
+    }
+
+    @Test
+    public void searchByCursorOrderedByAge() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("columnarTeam");
+
+        final MemberCursorPage first = memberColumnarRepository.searchByCursor(
+            condition, MemberSearchCursor.first(MemberSearchCursor.SortKey.AGE), 3);
+        assertThat(first.getContent()).extracting("age").containsExactly(10, 20, 30);
+        assertThat(first.isHasNext()).isTrue();
+
+        final MemberCursorPage second = memberColumnarRepository.searchByCursor(
+            condition, MemberSearchCursor.decode(first.getNext()), 3);
+        assertThat(second.getContent()).extracting("age").containsExactly(40);
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    public void reloadMatchesIncrementalState() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("columnarMember3");
+        final List<MemberTeamDto> before = memberColumnarRepository.search(condition);
+
+        memberColumnarIndex.reload();
+
+        assertThat(memberColumnarRepository.search(condition)).usingFieldByFieldElementComparator()
+            .containsExactlyElementsOf(before);
+        assertThat(memberColumnarIndex.stats().getEstimatedBytes()).isPositive();
+    }
+}
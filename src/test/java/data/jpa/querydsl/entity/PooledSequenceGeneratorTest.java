@@ -0,0 +1,55 @@
+package data.jpa.querydsl.entity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:pooled-sequence;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.id.sequence.member_seq.increment_size=20"
+})
+@Transactional
+class PooledSequenceGeneratorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void incrementSizeIsConfigurablePerSequence() {
+        assertThat(increment("MEMBER_SEQ")).isEqualTo(20);
+        assertThat(increment("TEAM_SEQ")).isEqualTo(PooledSequenceGenerator.DEFAULT_INCREMENT_SIZE);
+    }
+
+    @Test
+    public void idsComeFromOneSequenceCall() {
+        final long before = jdbcTemplate.queryForObject("select current_value from information_schema.sequences"
+            + " where sequence_name = 'MEMBER_SEQ'", Long.class);
+
+        final Member first = new Member("pooled", 10);
+        em.persist(first);
+        for (int i = 1; i < 20; i++) {
+            final Member member = new Member("pooled" + i, 10);
+            em.persist(member);
+            // pooled-lo 는 시퀀스 값부터 연속된 id 를 준다
+            assertThat(member.getId()).isEqualTo(first.getId() + i);
+        }
+
+        final long after = jdbcTemplate.queryForObject("select current_value from information_schema.sequences"
+            + " where sequence_name = 'MEMBER_SEQ'", Long.class);
+        assertThat(after - before).isLessThanOrEqualTo(20);
+    }
+
+    private long increment(String sequence) {
+        return jdbcTemplate.queryForObject(
+            "select increment from information_schema.sequences where sequence_name = ?", Long.class, sequence);
+    }
+}
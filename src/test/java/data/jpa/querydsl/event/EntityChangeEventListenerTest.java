@@ -0,0 +1,106 @@
+package data.jpa.querydsl.event;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class EntityChangeEventListenerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EventCollector eventCollector;
+
+    @BeforeEach
+    public void setUp() {
+        eventCollector.events.clear();
+    }
+
+    @Test
+    public void entityChanges() {
+        Team team = new Team("team1");
+        em.persist(team);
+        Member member1 = new Member("member1", 10, team);
+        em.persist(member1);
+        em.flush();
+
+        member1.setAge(20);
+        team.setName("team2");
+        em.flush();
+
+        em.remove(member1);
+        em.flush();
+
+        assertThat(eventCollector.events).filteredOn(MemberChangedEvent.class::isInstance)
+            .extracting("type")
+            .containsExactly(MemberChangedEvent.Type.INSERTED, MemberChangedEvent.Type.UPDATED, MemberChangedEvent.Type.DELETED);
+
+        MemberChangedEvent updated = (MemberChangedEvent) eventCollector.events.stream()
+            .filter(event -> event instanceof MemberChangedEvent
+                && ((MemberChangedEvent) event).getType() == MemberChangedEvent.Type.UPDATED)
+            .findFirst().get();
+        assertThat(updated.getBefore().getAge()).isEqualTo(10);
+        assertThat(updated.getAfter().getAge()).isEqualTo(20);
+        assertThat(updated.getAfter().getTeamId()).isEqualTo(team.getId());
+
+        assertThat(eventCollector.events).filteredOn(TeamChangedEvent.class::isInstance)
+            .extracting("renamed")
+            .containsExactly(false, true);
+        assertThat(eventCollector.events).noneMatch(BulkChangedEvent.class::isInstance);
+    }
+
+    @Test
+    public void bulkChanges() {
+        new JPAQueryFactory(em)
+            .update(member)
+            .set(member.age, member.age.add(1))
+            .execute();
+
+        assertThat(eventCollector.events).filteredOn(BulkChangedEvent.class::isInstance)
+            .extracting("table")
+            .containsExactly(BulkChangedEvent.MEMBER_TABLE);
+    }
+
+    @Test
+    public void modifiedTable() {
+        assertThat(BulkStatementInspector.modifiedTable("/* update Member */ update member set age=? where age>?"))
+            .isEqualTo("member");
+        assertThat(BulkStatementInspector.modifiedTable("delete from team where id=?")).isEqualTo("team");
+        assertThat(BulkStatementInspector.modifiedTable("select member0_.member_id from member member0_")).isNull();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        EventCollector eventCollector() {
+            return new EventCollector();
+        }
+    }
+
+    static class EventCollector {
+        final List<Object> events = new ArrayList<>();
+
+        @EventListener({MemberChangedEvent.class, TeamChangedEvent.class, BulkChangedEvent.class})
+        public void collect(Object event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package data.jpa.querydsl.generator;
+
+import data.jpa.querydsl.CommittedFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 생성기는 commit-interval 마다 직접 커밋한다. 이번 테스트에서 만든 행은 생성 전 최대 id 보다 큰 행으로 고른다.
+ */
+@SpringBootTest
+class MemberDataGeneratorTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberDataGenerator memberDataGenerator;
+
+    @SpyBean
+    PlatformTransactionManager transactionManager;
+
+    long maxMemberId;
+    long maxTeamId;
+
+    @BeforeEach
+    public void setUp() {
+        maxMemberId = maxId("select coalesce(max(m.id), 0) from Member m");
+        maxTeamId = maxId("select coalesce(max(t.id), 0) from Team t");
+    }
+
+    @Test
+    public void generatesConfiguredRowsInCommitIntervals() {
+        final GeneratorProperties properties = new GeneratorProperties();
+        properties.setTeamCount(3);
+        properties.setMemberCount(25);
+        properties.setBatchSize(4);
+        properties.setCommitInterval(10);
+        final AtomicInteger commits = countCommitsOnThisThread();
+
+        final GenerationReport report = memberDataGenerator.generate(properties);
+
+        assertThat(report.getTeamCount()).isEqualTo(3);
+        assertThat(report.getMemberCount()).isEqualTo(25);
+        assertThat(count("select count(t) from Team t where t.id > :id", maxTeamId)).isEqualTo(3);
+        assertThat(count("select count(m) from Member m where m.id > :id", maxMemberId)).isEqualTo(25);
+        assertThat(count("select count(m) from Member m where m.id > :id and m.team is null", maxMemberId)).isZero();
+        // 팀 1 번 + member 10, 10, 5 건
+        assertThat(commits.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void ageSkewAndTeamSkewStayWithinBounds() {
+        final GeneratorProperties properties = new GeneratorProperties();
+        properties.setTeamCount(4);
+        properties.setMemberCount(400);
+        properties.setAgeMin(20);
+        properties.setAgeMax(29);
+        properties.setAgeSkew(3);
+        properties.setTeamSizeSkew(2);
+        properties.setUsernameCardinality(5);
+
+        memberDataGenerator.generate(properties);
+
+        final Object[] ages = fixture.execute(status -> em
+            .createQuery("select min(m.age), max(m.age), avg(m.age) from Member m where m.id > :id", Object[].class)
+            .setParameter("id", maxMemberId)
+            .getSingleResult());
+        assertThat((Integer) ages[0]).isGreaterThanOrEqualTo(20);
+        assertThat((Integer) ages[1]).isLessThanOrEqualTo(29);
+        // 치우침이 있으면 평균이 구간 가운데(24.5)보다 낮다
+        assertThat((Double) ages[2]).isLessThan(24.5);
+
+        final List<Long> teamSizes = fixture.execute(status -> em
+            .createQuery("select count(m) from Member m join m.team t where m.id > :id"
+                + " group by t.id order by t.id", Long.class)
+            .setParameter("id", maxMemberId)
+            .getResultList());
+        assertThat(teamSizes.get(0)).isGreaterThan(teamSizes.get(teamSizes.size() - 1) * 4);
+
+        assertThat(count("select count(distinct m.username) from Member m where m.id > :id", maxMemberId))
+            .isLessThanOrEqualTo(5);
+    }
+
+    private AtomicInteger countCommitsOnThisThread() {
+        final Thread testThread = Thread.currentThread();
+        final AtomicInteger commits = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (Thread.currentThread() == testThread) {
+                commits.incrementAndGet();
+            }
+            return invocation.callRealMethod();
+        }).when(transactionManager).commit(any());
+        return commits;
+    }
+
+    private long maxId(String jpql) {
+        return fixture.execute(status -> em.createQuery(jpql, Long.class).getSingleResult());
+    }
+
+    private long count(String jpql, long id) {
+        return fixture.execute(status -> em.createQuery(jpql, Long.class)
+            .setParameter("id", id)
+            .getSingleResult());
+    }
+}
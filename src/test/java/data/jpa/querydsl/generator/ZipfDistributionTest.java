@@ -0,0 +1,50 @@
+package data.jpa.querydsl.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZipfDistributionTest {
+
+    @Test
+    public void samplesStayWithinBounds() {
+        final Random random = new Random(1);
+        for (double exponent : new double[]{0, 1, 3}) {
+            final ZipfDistribution distribution = new ZipfDistribution(5, exponent);
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(distribution.sample(random)).isBetween(0, 4);
+            }
+        }
+    }
+
+    @Test
+    public void zeroExponentIsUniform() {
+        final int[] counts = sample(new ZipfDistribution(4, 0), 40_000);
+
+        for (int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+
+    @Test
+    public void positiveExponentFavorsLowRanks() {
+        final int[] counts = sample(new ZipfDistribution(4, 1), 40_000);
+
+        // P(k) ∝ 1 / (k + 1) 이므로 0 번이 3 번의 약 4 배
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[2]);
+        assertThat(counts[2]).isGreaterThan(counts[3]);
+        assertThat((double) counts[0] / counts[3]).isBetween(3.5, 4.5);
+    }
+
+    private static int[] sample(ZipfDistribution distribution, int samples) {
+        final Random random = new Random(42);
+        final int[] counts = new int[4];
+        for (int i = 0; i < samples; i++) {
+            counts[distribution.sample(random)]++;
+        }
+        return counts;
+    }
+}
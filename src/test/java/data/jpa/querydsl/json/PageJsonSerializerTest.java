@@ -0,0 +1,55 @@
+package data.jpa.querydsl.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+class PageJsonSerializerTest {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    public void memberTeamDtoMatchesBeanSerialization() throws Exception {
+        final MemberTeamDto withTeam = new MemberTeamDto(1L, "member\"1", 10, 2L, "teamA");
+        final MemberTeamDto withoutTeam = new MemberTeamDto(3L, "member3", 30, null, null);
+        final ObjectMapper beanMapper = new ObjectMapper();
+
+        assertThat(objectMapper.writeValueAsString(withTeam)).isEqualTo(beanMapper.writeValueAsString(withTeam));
+        assertThat(objectMapper.writeValueAsString(withoutTeam)).isEqualTo(beanMapper.writeValueAsString(withoutTeam));
+    }
+
+    @Test
+    public void compactPageEnvelope() throws Exception {
+        final Page<MemberTeamDto> page = new PageImpl<>(
+            Arrays.asList(new MemberTeamDto(1L, "member1", 10, 2L, "teamA"), null),
+            PageRequest.of(1, 2), 5);
+
+        assertThat(objectMapper.writerFor(new TypeReference<Page<MemberTeamDto>>() {}).writeValueAsString(page))
+            .isEqualTo("{\"content\":["
+            + "{\"memberId\":1,\"username\":\"member1\",\"age\":10,\"teamId\":2,\"teamName\":\"teamA\"},null],"
+            + "\"number\":1,\"size\":2,\"totalElements\":5,\"totalPages\":3}");
+    }
+
+    @Test
+    public void otherPagesKeepDefaultSerialization() throws Exception {
+        final Page<String> page = new PageImpl<>(Collections.singletonList("a"), PageRequest.of(0, 1), 1);
+
+        assertThat(objectMapper.writerFor(new TypeReference<Page<String>>() {}).writeValueAsString(page))
+            .contains("\"pageable\"");
+        // 원소 타입을 모르는 Page 도 기본 직렬화를 쓴다
+        assertThat(objectMapper.writeValueAsString(page)).contains("\"pageable\"");
+    }
+}
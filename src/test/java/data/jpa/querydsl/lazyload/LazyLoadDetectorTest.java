@@ -0,0 +1,59 @@
+package data.jpa.querydsl.lazyload;
+
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "lazy-load-detector.threshold=2",
+    "lazy-load-detector.action=throw"
+})
+@Transactional
+class LazyLoadDetectorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 4; i++) {
+            Team team = new Team("lazyTeam" + i);
+            em.persist(team);
+            em.persist(new Member("lazyMember", i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void underThreshold() {
+        List<Member> members = memberRepository.findByUsername("lazyMember");
+
+        assertThat(members.get(0).getTeam().getName()).startsWith("lazyTeam");
+        assertThat(members.get(1).getTeam().getName()).startsWith("lazyTeam");
+    }
+
+    @Test
+    public void overThreshold() {
+        List<Member> members = memberRepository.findByUsername("lazyMember");
+
+        assertThatThrownBy(() -> members.forEach(member -> member.getTeam().getName()))
+            .isInstanceOf(LazyLoadThresholdExceededException.class)
+            .hasMessageContaining("Team proxy")
+            .hasMessageContaining("MemberRepository.findByUsername");
+    }
+}
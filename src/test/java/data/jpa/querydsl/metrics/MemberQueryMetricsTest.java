@@ -0,0 +1,91 @@
+package data.jpa.querydsl.metrics;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberQueryMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    MemberQueryMetrics metrics = new MemberQueryMetrics(registry);
+    SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    public void recordsCallRowsAndStatementsByShape() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+
+        metrics.record("MemberRepository", "search", condition, () -> {
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+            return Arrays.asList("a", "b", "c");
+        });
+
+        final Timer calls = registry.get("member.repository.calls")
+            .tag("repository", "MemberRepository")
+            .tag("method", "search")
+            .tag("shape", "teamName+ageGoe")
+            .tag("exception", "none")
+            .timer();
+        assertThat(calls.count()).isEqualTo(1);
+        assertThat(summary("member.repository.rows", "teamName+ageGoe").totalAmount()).isEqualTo(3);
+        assertThat(summary("member.repository.statements", "teamName+ageGoe").totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    public void rowsOfPageAreItsContentSize() {
+        metrics.record("MemberRepository", "searchSimple", new MemberSearchCondition(),
+            () -> new PageImpl<>(Arrays.asList("a", "b"), PageRequest.of(0, 2), 100));
+
+        final DistributionSummary rows = registry.get("member.repository.rows")
+            .tag("method", "searchSimple")
+            .tag("shape", "none")
+            .summary();
+        assertThat(rows.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    public void exceptionIsTaggedAndRethrown() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+
+        assertThatThrownBy(() -> metrics.record("MemberRepository", "search", condition, () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("member.repository.calls")
+            .tag("shape", "username")
+            .tag("exception", "IllegalStateException")
+            .timer().count()).isEqualTo(1);
+        assertThat(registry.find("member.repository.rows").summary()).isNull();
+    }
+
+    @Test
+    public void contentAndCountPhasesAreTimedSeparately() {
+        assertThat(metrics.content("searchComplex", () -> "content")).isEqualTo("content");
+        assertThat(metrics.count("searchComplex", () -> 5L)).isEqualTo(5L);
+
+        assertThat(registry.get("member.repository.phase").tag("method", "searchComplex").tag("phase", "content")
+            .timer().count()).isEqualTo(1);
+        assertThat(registry.get("member.repository.phase").tag("method", "searchComplex").tag("phase", "count")
+            .timer().count()).isEqualTo(1);
+    }
+
+    private DistributionSummary summary(String name, String shape) {
+        return registry.get(name)
+            .tag("repository", "MemberRepository")
+            .tag("method", "search")
+            .tag("shape", shape)
+            .summary();
+    }
+}
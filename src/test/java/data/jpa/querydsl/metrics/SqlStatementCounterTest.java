@@ -0,0 +1,41 @@
+package data.jpa.querydsl.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementCounterTest {
+
+    SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    public void countsStatementsOfCurrentThread() {
+        final long before = SqlStatementCounter.current();
+
+        assertThat(counter.inspect("select 1")).isEqualTo("select 1");
+        counter.inspect("select 2");
+
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+
+    @Test
+    public void otherThreadsAreNotCountedUntilAdded() {
+        final long before = SqlStatementCounter.current();
+
+        final long otherThread = CompletableFuture.supplyAsync(() -> {
+            final long start = SqlStatementCounter.current();
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+            return SqlStatementCounter.current() - start;
+        }).join();
+
+        assertThat(otherThread).isEqualTo(2);
+        assertThat(SqlStatementCounter.current() - before).isZero();
+
+        SqlStatementCounter.add(otherThread);
+
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+}
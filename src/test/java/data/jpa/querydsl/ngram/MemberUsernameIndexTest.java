@@ -0,0 +1,102 @@
+package data.jpa.querydsl.ngram;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.dto.UsernameMatch;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * n-gram 목록은 커밋 이후에 갱신된다.
+ */
+@SpringBootTest(properties = "member.search.username-index.enabled=true")
+class MemberUsernameIndexTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberUsernameIndex memberUsernameIndex;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    List<Long> memberIds;
+
+    @BeforeEach
+    public void setUp() {
+        memberIds = new ArrayList<>();
+        fixture.execute(status -> {
+            for (String username : new String[]{"ngramAlice", "ngramAlina", "ngramBob", "ngram_x%"}) {
+                final Member member = new Member(username, 20);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void prefix() {
+        assertThat(memberUsernameIndex.candidates(condition("ngramAli", UsernameMatch.PREFIX)))
+            .containsExactlyInAnyOrder(memberIds.get(0), memberIds.get(1));
+        assertThat(memberUsernameIndex.candidates(condition("ngramZ", UsernameMatch.PREFIX))).isEmpty();
+    }
+
+    @Test
+    public void contains() {
+        assertThat(memberUsernameIndex.candidates(condition("lic", UsernameMatch.CONTAINS)))
+            .containsExactly(memberIds.get(0));
+        // 조각은 모두 있지만 이어지지 않는 경우는 username 확인에서 걸러진다
+        assertThat(memberUsernameIndex.candidates(condition("AliBob", UsernameMatch.CONTAINS))).isEmpty();
+        // 3글자보다 짧으면 DB 에 맡긴다
+        assertThat(memberUsernameIndex.candidates(condition("li", UsernameMatch.CONTAINS))).isNull();
+    }
+
+    @Test
+    public void followsCommittedChanges() {
+        fixture.execute(status -> {
+            em.find(Member.class, memberIds.get(2)).setUsername("ngramAlfred");
+            return null;
+        });
+
+        assertThat(memberUsernameIndex.candidates(condition("ngramAl", UsernameMatch.PREFIX)))
+            .containsExactlyInAnyOrder(memberIds.get(0), memberIds.get(1), memberIds.get(2));
+        assertThat(memberUsernameIndex.candidates(condition("Bob", UsernameMatch.CONTAINS))).isEmpty();
+    }
+
+    @Test
+    public void searchUsesSameRulesAsLike() {
+        final List<MemberTeamDto> prefixed = memberRepository.search(condition("ngramAli", UsernameMatch.PREFIX));
+        assertThat(prefixed).extracting("username").containsExactlyInAnyOrder("ngramAlice", "ngramAlina");
+
+        // 와일드카드 문자는 글자 그대로 비교된다
+        final List<MemberTeamDto> escaped = memberRepository.search(condition("_x%", UsernameMatch.CONTAINS));
+        assertThat(escaped).extracting("username").containsExactly("ngram_x%");
+
+        final List<MemberTeamDto> shortPart = memberRepository.search(condition("ob", UsernameMatch.CONTAINS));
+        assertThat(shortPart).extracting("username").contains("ngramBob");
+    }
+
+    private MemberSearchCondition condition(String username, UsernameMatch match) {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setUsernameMatch(match);
+        return condition;
+    }
+}
@@ -0,0 +1,117 @@
+package data.jpa.querydsl.readmodel;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.event.BulkChangeScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+
+import static data.jpa.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.search.read-model.enabled=true")
+@Transactional
+class MemberTeamViewSynchronizerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberTeamViewConsistencyChecker checker;
+
+    Team team;
+    Member member1;
+
+    @BeforeEach
+    public void setUp() {
+        team = new Team("viewTeam");
+        em.persist(team);
+        member1 = new Member("viewMember1", 10, team);
+        em.persist(member1);
+        em.persist(new Member("viewMember2", 20, team));
+        em.flush();
+    }
+
+    @Test
+    public void entityChanges() {
+        assertThat(row(member1.getId()))
+            .containsEntry("USERNAME", "viewMember1")
+            .containsEntry("TEAM_NAME", "viewTeam");
+
+        member1.setAge(11);
+        team.setName("renamedTeam");
+        em.flush();
+
+        assertThat(row(member1.getId()))
+            .containsEntry("AGE", 11)
+            .containsEntry("TEAM_NAME", "renamedTeam");
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from member_team where team_name = 'renamedTeam'", Long.class)).isEqualTo(2);
+
+        em.remove(member1);
+        em.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from member_team where member_id = ?", Long.class, member1.getId())).isZero();
+        assertThat(checker.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    public void bulkChangeRebuildsOnFlush() {
+        new JPAQueryFactory(em)
+            .update(member)
+            .set(member.age, member.age.add(1))
+            .where(member.username.startsWith("viewMember"))
+            .execute();
+        em.flush();
+
+        assertThat(row(member1.getId())).containsEntry("AGE", 11);
+        assertThat(checker.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    public void bulkChangeWithIdRangeResyncsOnlyThatRange() {
+        final Member other = new Member("viewOther", 30, team);
+        em.persist(other);
+        em.flush();
+        // 전체를 다시 만들면 되돌아가는 값
+        jdbcTemplate.update("update member_team set age = -1 where member_id = ?", other.getId());
+
+        BulkChangeScope.run(member1.getId(), member1.getId(), () -> new JPAQueryFactory(em)
+            .update(member)
+            .set(member.age, member.age.add(1))
+            .where(member.id.eq(member1.getId()))
+            .execute());
+        em.flush();
+
+        assertThat(row(member1.getId())).containsEntry("AGE", 11);
+        assertThat(row(other.getId())).containsEntry("AGE", -1);
+    }
+
+    @Test
+    public void repair() {
+        jdbcTemplate.update("update member_team set age = -1 where member_id = ?", member1.getId());
+        jdbcTemplate.update("delete from member_team where username = 'viewMember2'");
+
+        final ReadModelConsistencyReport report = checker.repair();
+
+        assertThat(report.getMismatchedRows()).isEqualTo(1);
+        assertThat(report.getMissingRows()).isEqualTo(1);
+        assertThat(checker.check().isConsistent()).isTrue();
+    }
+
+    private Map<String, Object> row(Long memberId) {
+        return jdbcTemplate.queryForMap("select * from member_team where member_id = ?", memberId);
+    }
+}
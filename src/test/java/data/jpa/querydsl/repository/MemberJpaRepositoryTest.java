@@ -1,15 +1,18 @@
 package data.jpa.querydsl.repository;
 
+import data.jpa.querydsl.dto.MemberBatchSearchResult;
 import data.jpa.querydsl.dto.MemberSearchCondition;
 import data.jpa.querydsl.dto.MemberTeamDto;
 import data.jpa.querydsl.entity.Member;
 import data.jpa.querydsl.entity.Team;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +44,27 @@ class MemberJpaRepositoryTest {
         assertThat(findUsername).containsExactly(member);
     }
 
+    @Test
+    public void readOnlyQuery() {
+        Member member = new Member("readOnlyMember", 10);
+        memberJpaRepository.save(member);
+        em.flush();
+        em.clear();
+
+        final List<Member> findUsername = memberJpaRepository.findByUsernameReadOnly("readOnlyMember");
+        assertThat(findUsername).extracting("id").containsExactly(member.getId());
+        assertThat(memberJpaRepository.findAllReadOnly()).extracting("id").contains(member.getId());
+
+        // 읽기 전용 엔티티는 dirty checking 대상이 아니다
+        final Member readOnly = findUsername.get(0);
+        assertThat(em.unwrap(Session.class).isReadOnly(readOnly)).isTrue();
+        readOnly.setAge(20);
+        em.flush();
+        em.clear();
+
+        assertThat(memberJpaRepository.findById(member.getId()).get().getAge()).isEqualTo(10);
+    }
+
     @Test
     public void searchTest() {
         Team team1 = new Team("team1");
@@ -110,4 +134,34 @@ class MemberJpaRepositoryTest {
 
         assertThat(result2).extracting("username").containsExactly("member1", "member2");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void searchBatch() {
+        Team team1 = new Team("team1");
+        Team team2 = new Team("team2");
+        em.persist(team1);
+        em.persist(team2);
+
+        em.persist(new Member("member1", 10, team1));
+        em.persist(new Member("member2", 20, team1));
+        em.persist(new Member("member3", 30, team2));
+        em.persist(new Member("member4", 40, team2));
+
+        MemberSearchCondition condition1 = new MemberSearchCondition();
+        condition1.setTeamName("team1");
+        MemberSearchCondition condition2 = new MemberSearchCondition();
+        condition2.setAgeGoe(20);
+        condition2.setAgeLoe(30);
+        MemberSearchCondition condition3 = new MemberSearchCondition();
+        condition3.setUsername("member9");
+
+        final List<MemberBatchSearchResult> results =
+            memberJpaRepository.searchBatch(Arrays.asList(condition1, condition2, condition3, condition1));
+
+        assertThat(results).extracting("condition").containsExactly(condition1, condition2, condition3, condition1);
+        assertThat(results.get(0).getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(results.get(1).getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(results.get(2).getContent()).isEmpty();
+        assertThat(results.get(3).getContent()).extracting("username").containsExactly("member1", "member2");
+    }
+}
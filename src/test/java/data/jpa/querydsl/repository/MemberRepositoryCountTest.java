@@ -0,0 +1,184 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.metrics.SqlStatementCounter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * searchComplex 의 count 쿼리. 계획 캐시를 끈 Querydsl 경로와 계획 캐시 경로를 모두 확인한다.
+ * 검색 캐시는 쓰기 트랜잭션에서 쓰지 않으므로 커밋된 데이터로 검색한다.
+ */
+@SpringBootTest(properties = {
+    "member.search.count-cache.ttl=1m",
+    "member.search.result-cache.enabled=false",
+    "member.search.plan-cache.enabled=false",
+    "member.search.read-model.enabled=false"})
+class MemberRepositoryCountTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSearchCountCache countCache;
+
+    @Autowired
+    SqlCapture sqlCapture;
+
+    Team team1;
+
+    @BeforeEach
+    public void setUp() {
+        countCache.clear();
+        fixture.execute(status -> {
+            team1 = new Team("countTeam1");
+            final Team team2 = new Team("countTeam2");
+            em.persist(team1);
+            em.persist(team2);
+            em.persist(new Member("countMember", 10, team1));
+            em.persist(new Member("countMember", 20, team1));
+            em.persist(new Member("countMember", 30, team2));
+            return null;
+        });
+    }
+
+    @Test
+    public void totalIsCachedUntilMemberChanges() {
+        final MemberSearchCondition condition = usernameCondition();
+
+        long before = SqlStatementCounter.current();
+        assertThat(searchFirstRow(condition).getTotalElements()).isEqualTo(3);
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+
+        // 두 번째 호출은 content 만 조회한다
+        before = SqlStatementCounter.current();
+        assertThat(searchFirstRow(condition).getTotalElements()).isEqualTo(3);
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(1);
+
+        // member 변경이 커밋되면 MemberSearchCacheInvalidator 가 total 을 지운다
+        fixture.execute(status -> {
+            em.persist(new Member("countMember", 40, em.getReference(Team.class, team1.getId())));
+            return null;
+        });
+
+        before = SqlStatementCounter.current();
+        assertThat(searchFirstRow(condition).getTotalElements()).isEqualTo(4);
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+
+    @Test
+    public void countQueryJoinsTeamOnlyForTeamName() {
+        final MemberSearchCondition byUsername = usernameCondition();
+        final MemberSearchCondition byTeamName = usernameCondition();
+        byTeamName.setTeamName("countTeam1");
+
+        sqlCapture.clear();
+        assertThat(searchFirstRow(byUsername).getTotalElements()).isEqualTo(3);
+        assertThat(sqlCapture.countQuery()).doesNotContain("join");
+
+        sqlCapture.clear();
+        assertThat(searchFirstRow(byTeamName).getTotalElements()).isEqualTo(2);
+        assertThat(sqlCapture.countQuery()).contains("join");
+    }
+
+    @Test
+    public void planCountQueryJoinsTeamOnlyForTeamName() {
+        final MemberSearchCondition byTeamName = usernameCondition();
+        byTeamName.setTeamName("countTeam1");
+
+        fixture.execute(status -> {
+            final MemberSearchPlan usernamePlan =
+                MemberSearchPlan.build(em, MemberSearchPlanCache.shapeOf(usernameCondition()));
+            final MemberSearchPlan teamNamePlan =
+                MemberSearchPlan.build(em, MemberSearchPlanCache.shapeOf(byTeamName));
+
+            assertThat(usernamePlan.getCountJpql()).doesNotContain("join");
+            assertThat(usernamePlan.count(em, usernameCondition())).isEqualTo(3);
+            assertThat(teamNamePlan.getCountJpql()).contains("join");
+            assertThat(teamNamePlan.count(em, byTeamName)).isEqualTo(2);
+            return null;
+        });
+    }
+
+    /**
+     * content 가 페이지를 채우므로 count 쿼리를 생략하지 않는다.
+     */
+    private Page<MemberTeamDto> searchFirstRow(MemberSearchCondition condition) {
+        return memberRepository.searchComplex(condition, PageRequest.of(0, 1));
+    }
+
+    private static MemberSearchCondition usernameCondition() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("countMember");
+        return condition;
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    /**
+     * HibernateEventConfig 가 StatementInspector 빈을 모두 묶으므로 실행된 SQL 을 그대로 받아 둔다.
+     * 백그라운드 적재 등 다른 스레드의 SQL 이 섞이지 않게 clear 를 호출한 스레드의 SQL 만 모은다.
+     */
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile Thread owner;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == owner) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        void clear() {
+            owner = Thread.currentThread();
+            statements.clear();
+        }
+
+        /**
+         * use_sql_comments 로 붙는 JPQL 주석을 뺀 count SQL
+         */
+        String countQuery() {
+            final List<String> counts = statements.stream()
+                .map(sql -> sql.replaceAll("(?s)/\\*.*?\\*/", "").toLowerCase())
+                .filter(sql -> sql.contains("count("))
+                .collect(Collectors.toList());
+            assertThat(counts).hasSize(1);
+            return counts.get(0);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * searchParallel 은 호출자 트랜잭션이 없을 때만 작업 스레드에서 실행되므로 커밋된 데이터로 검색한다.
+ */
+@SpringBootTest(properties = "member.search.result-cache.enabled=false")
+class MemberRepositoryParallelTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    StatementThreads statementThreads;
+
+    @BeforeEach
+    public void setUp() {
+        fixture.execute(status -> {
+            final Team team = new Team("parallelTeam");
+            em.persist(team);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("parallelMember" + i, 10 * i, team));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void contentAndCountRunOnWorkerThreads() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("parallelTeam");
+
+        statementThreads.start();
+        final Page<MemberTeamDto> results = memberRepository.searchParallel(condition, PageRequest.of(1, 2));
+        statementThreads.stop();
+
+        assertThat(results.getTotalElements()).isEqualTo(5);
+        assertThat(results.getContent()).extracting("username")
+            .containsExactly("parallelMember2", "parallelMember3");
+        assertThat(statementThreads.of("count(")).startsWith("member-search-");
+        assertThat(statementThreads.of("limit")).startsWith("member-search-");
+    }
+
+    @TestConfiguration
+    static class StatementThreadsConfig {
+
+        @Bean
+        StatementThreads statementThreads() {
+            return new StatementThreads();
+        }
+    }
+
+    /**
+     * HibernateEventConfig 가 StatementInspector 빈을 모두 묶으므로 start ~ stop 사이에 실행된 SQL 의 스레드 이름을 모은다.
+     */
+    static class StatementThreads implements StatementInspector {
+
+        private final Map<String, String> threads = new ConcurrentHashMap<>();
+        private volatile boolean recording;
+
+        @Override
+        public String inspect(String sql) {
+            if (recording) {
+                threads.put(sql.replaceAll("(?s)/\\*.*?\\*/", "").toLowerCase(), Thread.currentThread().getName());
+            }
+            return sql;
+        }
+
+        void start() {
+            threads.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        /**
+         * fragment 를 포함한 SQL 을 실행한 스레드 이름
+         */
+        String of(String fragment) {
+            return threads.entrySet().stream()
+                .filter(entry -> entry.getKey().contains(fragment))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no statement containing " + fragment + " : " + threads.keySet()));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package data.jpa.querydsl.repository;
 
+import data.jpa.querydsl.dto.MemberCursorPage;
 import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberSearchCursor;
 import data.jpa.querydsl.dto.MemberTeamDto;
 import data.jpa.querydsl.entity.Member;
 import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.metrics.SqlStatementCounter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +30,9 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberSearchPlanCache planCache;
+
 
     @Test
     public void basicTest() {
@@ -42,6 +49,31 @@ class MemberRepositoryTest {
         assertThat(findUsername).containsExactly(member);
     }
 
+    @Test
+    public void searchEntities() {
+        Team team1 = new Team("team1");
+        Team team2 = new Team("team2");
+        em.persist(team1);
+        em.persist(team2);
+        em.persist(new Member("member1", 10, team1));
+        em.persist(new Member("member2", 20, team1));
+        em.persist(new Member("member3", 30, team2));
+        em.persist(new Member("member4", 40, team2));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        final long before = SqlStatementCounter.current();
+        final Page<Member> result = memberRepository.searchEntities(condition, PageRequest.of(0, 2));
+        assertThat(result.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        // team 은 fetch join 으로 이미 초기화되어 있어 content, count 외의 쿼리가 없다
+        assertThat(result.getContent()).extracting(member -> member.getTeam().getName()).containsExactly("team1", "team2");
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+
     @Test
     public void search() {
         Team team1 = new Team("team1");
@@ -131,4 +163,105 @@ class MemberRepositoryTest {
             .extracting("username")
             .containsExactly("member1", "member2", "member3", "member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void searchParallel() {
+        Team team1 = new Team("team1");
+        em.persist(team1);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, 10 * i, team1));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        final PageRequest pageRequest = PageRequest.of(1, 2);
+
+        // 테스트 트랜잭션 안에서는 flush 전 데이터를 보기 위해 순차 실행으로 돌아간다
+        final Page<MemberTeamDto> results = memberRepository.searchParallel(condition, pageRequest);
+
+        assertThat(results.getTotalElements()).isEqualTo(5);
+        assertThat(results.getContent()).extracting("username").containsExactly("member2", "member3");
+    }
+
+    @Test
+    public void searchByCursor() {
+        Team team1 = new Team("team1");
+        Team team2 = new Team("team2");
+        em.persist(team1);
+        em.persist(team2);
+
+        Member member1 = new Member("member1", 40, team1);
+        Member member2 = new Member("member2", 30, team1);
+        Member member3 = new Member("member3", 20, team2);
+        Member member4 = new Member("member4", 10, team2);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        final MemberCursorPage first = memberRepository.searchByCursor(
+            condition, MemberSearchCursor.first(MemberSearchCursor.SortKey.AGE), 3);
+
+        assertThat(first.getContent())
+            .extracting("username")
+            .containsExactly("member4", "member3", "member2");
+        assertThat(first.isHasNext()).isTrue();
+
+        final MemberCursorPage second = memberRepository.searchByCursor(
+            condition, MemberSearchCursor.decode(first.getNext()), 3);
+
+        assertThat(second.getContent())
+            .extracting("username")
+            .containsExactly("member1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNext()).isNull();
+    }
+
+    @Test
+    public void searchByUsernameCursorPagesAcrossNullUsernames() {
+        em.persist(new Member("b", 10));
+        em.persist(new Member(null, 20));
+        em.persist(new Member("", 30));
+        em.persist(new Member(null, 40));
+        em.persist(new Member("a", 50));
+
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        MemberSearchCursor cursor = MemberSearchCursor.first(MemberSearchCursor.SortKey.USERNAME);
+        final List<Integer> ages = new ArrayList<>();
+        while (cursor != null) {
+            final MemberCursorPage page = memberRepository.searchByCursor(condition, cursor, 1);
+            page.getContent().forEach(dto -> ages.add(dto.getAge()));
+            cursor = page.getNext() != null ? MemberSearchCursor.decode(page.getNext()) : null;
+        }
+
+        // null 이 먼저, 그 다음 빈 문자열, 같은 값끼리는 id 순
+        assertThat(ages).containsExactly(20, 40, 30, 50, 10);
+    }
+
+    @Test
+    public void searchPlanCache() {
+        Team team1 = new Team("team1");
+        em.persist(team1);
+        em.persist(new Member("member1", 10, team1));
+        em.persist(new Member("member2", 20, team1));
+
+        MemberSearchCondition condition1 = new MemberSearchCondition();
+        condition1.setTeamName("team1");
+        condition1.setAgeGoe(15);
+
+        MemberSearchCondition condition2 = new MemberSearchCondition();
+        condition2.setTeamName("team1");
+        condition2.setAgeGoe(5);
+
+        memberRepository.search(condition1);
+        final long hitCount = planCache.getHitCount();
+
+        final List<MemberTeamDto> result = memberRepository.search(condition2);
+
+        assertThat(planCache.getHitCount()).isEqualTo(hitCount + 1);
+        assertThat(planCache.plan(condition2)).isSameAs(planCache.plan(condition1));
+        assertThat(result).extracting("username").containsExactly("member1", "member2");
+    }
+}
@@ -0,0 +1,102 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCountCacheTest {
+
+    @Test
+    public void disabledByDefault() {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ZERO, 10);
+        final AtomicLong calls = new AtomicLong();
+
+        cache.get(condition("member1"), calls::incrementAndGet);
+        cache.get(condition("member1"), calls::incrementAndGet);
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void hitReturnsCachedTotal() {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMinutes(1), 10);
+        final AtomicLong calls = new AtomicLong();
+
+        assertThat(cache.get(condition("member1"), () -> 10 + calls.incrementAndGet())).isEqualTo(11);
+        // 같은 값의 다른 조건 객체도 같은 항목이다
+        assertThat(cache.get(condition("member1"), () -> 10 + calls.incrementAndGet())).isEqualTo(11);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void cachedKeyIsNotAffectedByLaterChangesToCondition() {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMinutes(1), 10);
+        final MemberSearchCondition condition = condition("member1");
+        cache.get(condition, () -> 1);
+
+        condition.setUsername("member2");
+
+        assertThat(cache.get(condition("member1"), () -> 2)).isEqualTo(1);
+        assertThat(cache.get(condition, () -> 3)).isEqualTo(3);
+    }
+
+    @Test
+    public void expiredEntryIsCountedAgain() throws InterruptedException {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMillis(20), 10);
+        cache.get(condition("member1"), () -> 1);
+
+        Thread.sleep(50);
+
+        assertThat(cache.get(condition("member1"), () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void fullCacheEvictsExpiredEntriesOnly() throws InterruptedException {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMillis(50), 1);
+        cache.get(condition("member1"), () -> 1);
+
+        // 가득 찼고 만료된 항목이 없으면 새 조건은 보관하지 않는다
+        assertThat(cache.get(condition("member2"), () -> 2)).isEqualTo(2);
+        assertThat(cache.get(condition("member2"), () -> 3)).isEqualTo(3);
+        assertThat(cache.get(condition("member1"), () -> 4)).isEqualTo(1);
+
+        Thread.sleep(100);
+
+        // 만료된 항목을 비우고 나서 새 조건을 보관한다
+        assertThat(cache.get(condition("member2"), () -> 5)).isEqualTo(5);
+        assertThat(cache.get(condition("member2"), () -> 6)).isEqualTo(5);
+    }
+
+    @Test
+    public void clearDropsAllEntries() {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMinutes(1), 10);
+        cache.get(condition("member1"), () -> 1);
+
+        cache.clear();
+
+        assertThat(cache.get(condition("member1"), () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void countSpanningClearIsNotStored() {
+        final MemberSearchCountCache cache = new MemberSearchCountCache(Duration.ofMinutes(1), 10);
+
+        assertThat(cache.get(condition("member1"), () -> {
+            cache.clear();
+            return 1;
+        })).isEqualTo(1);
+
+        assertThat(cache.get(condition("member1"), () -> 2)).isEqualTo(2);
+    }
+
+    private static MemberSearchCondition condition(String username) {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        return condition;
+    }
+}
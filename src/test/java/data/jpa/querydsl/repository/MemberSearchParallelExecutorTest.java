@@ -0,0 +1,119 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSearchParallelExecutorTest {
+
+    MemberSearchParallelExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new MemberSearchParallelExecutor(new NoOpTransactionManager(), 2, 2, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void combinesContentAndCount() {
+        final Page<String> page = executor.page(() -> Arrays.asList("a", "b"), () -> 10L, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).containsExactly("a", "b");
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    public void workerStatementsAreAddedToCallerCount() {
+        final SqlStatementCounter counter = new SqlStatementCounter();
+        final long before = SqlStatementCounter.current();
+
+        executor.page(() -> {
+            counter.inspect("select content");
+            return Arrays.asList("a");
+        }, () -> {
+            counter.inspect("select count");
+            return 1L;
+        }, PageRequest.of(0, 2));
+
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(2);
+    }
+
+    @Test
+    public void failureCancelsOtherSide() {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> executor.page(() -> sleepUntilInterrupted(interrupted), () -> {
+            throw new IllegalStateException("count failed");
+        }, PageRequest.of(0, 2)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("count failed");
+        assertThat(await(interrupted)).isTrue();
+    }
+
+    @Test
+    public void timeoutCancelsBothSides() {
+        final CountDownLatch interrupted = new CountDownLatch(2);
+
+        assertThatThrownBy(() -> executor.page(() -> sleepUntilInterrupted(interrupted), () -> {
+            sleepUntilInterrupted(interrupted);
+            return 0L;
+        }, PageRequest.of(0, 2)))
+            .isInstanceOf(QueryTimeoutException.class);
+        assertThat(await(interrupted)).isTrue();
+    }
+
+    private static List<String> sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return Arrays.asList("never");
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package data.jpa.querydsl.repository;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import data.jpa.querydsl.metrics.SqlStatementCounter;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 데이터만 공유하므로 캐시 테스트는 팀을 커밋해서 확인한다.
+ * 페이징과 배치 로딩 테스트는 테스트 트랜잭션 안에서 실행하고 롤백한다.
+ */
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void repeatedTeamLoadIssuesNoSql() {
+        final Team team = cachedTeam();
+        findInNewEntityManager(team.getId());
+        final long statementCount = statistics.getPrepareStatementCount();
+
+        final Team found = findInNewEntityManager(team.getId());
+
+        assertThat(found.getName()).isEqualTo("cachedTeam");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementCount);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void repeatedTeamNameLookupIssuesNoSql() {
+        final Team team = cachedTeam();
+        teamRepository.findByName("cachedTeam");
+        final long statementCount = statistics.getPrepareStatementCount();
+
+        final Team found = teamRepository.findByName("cachedTeam").get();
+
+        assertThat(found.getId()).isEqualTo(team.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementCount);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void findWithMembers() {
+        for (int i = 0; i < 3; i++) {
+            final Team team = new Team("team" + i);
+            em.persist(team);
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("member" + i + "-" + j, j * 10, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        final long before = SqlStatementCounter.current();
+        final Page<Team> page = teamRepository.findWithMembers(PageRequest.of(0, 2));
+
+        // 팀 id 페이징, 팀+회원 IN fetch join, count
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting("name").containsExactly("team0", "team1");
+        for (Team team : page.getContent()) {
+            assertThat(Hibernate.isInitialized(team.getMembers())).isTrue();
+            assertThat(team.getMembers()).hasSize(3);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void lazyMembersAreBatchLoaded() {
+        for (int i = 0; i < 3; i++) {
+            final Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        final List<Team> teams = teamRepository.findAll();
+        final long before = SqlStatementCounter.current();
+        teams.forEach(team -> team.getMembers().size());
+
+        // @BatchSize 로 세 팀의 members 가 한 번에 초기화된다
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(1);
+    }
+
+    private Team cachedTeam() {
+        final Team team = fixture.execute(status -> teamRepository.save(new Team("cachedTeam")));
+        emf.getCache().evictAll();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return team;
+    }
+
+    private Team findInNewEntityManager(Long id) {
+        final EntityManager entityManager = emf.createEntityManager();
+        try {
+            return entityManager.find(Team.class, id);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
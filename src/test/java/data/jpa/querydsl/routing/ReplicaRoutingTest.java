@@ -0,0 +1,141 @@
+package data.jpa.querydsl.routing;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.dto.MemberTeamDto;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.repository.MemberJpaRepository;
+import data.jpa.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서로 다른 두 H2 메모리 DB 를 primary/replica 로 쓴다. replica 에는 스키마만 복사하고 복제는 하지 않으므로
+ * primary 에 쓴 행이 보이는지로 어느 쪽에서 읽었는지 구분한다.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "datasource.routing.enabled=true",
+    "datasource.routing.replicas[0].name=replica1",
+    "datasource.routing.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+    "datasource.routing.replicas[0].username=sa",
+    "datasource.routing.health-check-interval=1h",
+    "datasource.routing.lag-query=select lag_millis from replica_lag",
+    "datasource.routing.max-lag=1s"
+})
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ReplicaRouter replicaRouter;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    JdbcTemplate replica;
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        if (replica.queryForObject(
+            "select count(*) from information_schema.tables where table_name = 'MEMBER'", Integer.class) == 0) {
+            // primary 의 스키마(데이터 제외)를 그대로 만든다
+            final List<String> ddl = jdbcTemplate.queryForList("script nodata", String.class);
+            ddl.stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+            replica.execute("create table replica_lag (lag_millis bigint)");
+            replica.execute("insert into replica_lag values (0)");
+        }
+        setLag(0);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionTemplate.execute(status -> {
+            memberRepository.deleteAll(em.createQuery("select m from Member m where m.username = 'routingMember'", Member.class)
+                .getResultList());
+            return null;
+        });
+    }
+
+    @Test
+    public void readOnlyTransactionsGoToReplica() {
+        transactionTemplate.execute(status -> {
+            em.persist(new Member("routingMember", 10));
+            return null;
+        });
+
+        // 쓰기는 primary 에만 있고 replica 로 간 읽기에서는 보이지 않는다
+        assertThat(memberRepository.findByUsername("routingMember")).isEmpty();
+        assertThat(replica.queryForObject(
+            "select count(*) from member where username = 'routingMember'", Integer.class)).isZero();
+
+        // 읽기-쓰기 트랜잭션 안의 읽기는 primary
+        final List<Member> inReadWrite = transactionTemplate.execute(status -> memberRepository.findByUsername("routingMember"));
+        assertThat(inReadWrite).hasSize(1);
+    }
+
+    @Test
+    public void querydslSearchGoesToReplica() {
+        transactionTemplate.execute(status -> {
+            em.persist(new Member("routingMember", 10));
+            return null;
+        });
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("routingMember");
+
+        assertThat(memberJpaRepository.search(condition)).isEmpty();
+        assertThat(memberJpaRepository.findByUsername("routingMember")).isEmpty();
+
+        final List<MemberTeamDto> inReadWrite = transactionTemplate.execute(status -> memberJpaRepository.search(condition));
+        assertThat(inReadWrite).extracting("username").containsExactly("routingMember");
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() {
+        transactionTemplate.execute(status -> {
+            em.persist(new Member("routingMember", 10));
+            return null;
+        });
+
+        setLag(5000);
+        assertThat(replicaRouter.statuses()).extracting("available").containsExactly(false);
+        assertThat(memberRepository.findByUsername("routingMember")).hasSize(1);
+
+        setLag(0);
+        assertThat(replicaRouter.statuses()).extracting("available").containsExactly(true);
+        assertThat(memberRepository.findByUsername("routingMember")).isEmpty();
+    }
+
+    private void setLag(long lagMillis) {
+        replica.update("update replica_lag set lag_millis = ?", lagMillis);
+        replicaRouter.checkReplicas();
+    }
+}
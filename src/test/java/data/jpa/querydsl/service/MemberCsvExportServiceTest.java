@@ -0,0 +1,70 @@
+package data.jpa.querydsl.service;
+
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.export.fetch-size=2")
+@Transactional
+class MemberCsvExportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberCsvExportService memberCsvExportService;
+
+    @Test
+    public void exportGzipCsv() throws Exception {
+        final Team team = new Team("export,Team");
+        em.persist(team);
+        final Member member1 = new Member("exportMember", 10, team);
+        final Member member2 = new Member("exportMember", 20);
+        final Member member3 = new Member("exportMember", 30, team);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+        em.clear();
+
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("exportMember");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final MemberExportReport report = memberCsvExportService.export(condition, out);
+
+        final List<String> lines = gunzip(out.toByteArray());
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo(MemberCsvExportService.HEADER);
+        assertThat(lines.subList(1, 4)).containsExactlyInAnyOrder(
+            member1.getId() + ",exportMember,10," + team.getId() + ",\"export,Team\"",
+            member2.getId() + ",exportMember,20,,",
+            member3.getId() + ",exportMember,30," + team.getId() + ",\"export,Team\"");
+        assertThat(report.getRows()).isEqualTo(3);
+        assertThat(report.getGzipBytes()).isEqualTo(out.size());
+        assertThat(report.getCsvBytes()).isEqualTo(String.join("\n", lines).length() + 1);
+    }
+
+    private static List<String> gunzip(byte[] compressed) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(new ByteArrayInputStream(compressed)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package data.jpa.querydsl.stats;
+
+import data.jpa.querydsl.CommittedFixture;
+import data.jpa.querydsl.bulk.MemberBulkService;
+import data.jpa.querydsl.dto.MemberSearchCondition;
+import data.jpa.querydsl.entity.Member;
+import data.jpa.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 팀 통계는 커밋된 변경만 반영한다.
+ */
+@SpringBootTest
+class TeamStatisticsAggregatorTest {
+
+    @RegisterExtension
+    CommittedFixture fixture = new CommittedFixture();
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatisticsAggregator teamStatisticsAggregator;
+
+    @Autowired
+    MemberBulkService memberBulkService;
+
+    @SpyBean
+    JdbcTemplate jdbcTemplate;
+
+    Long teamId;
+    List<Long> memberIds;
+
+    @BeforeEach
+    public void setUp() {
+        memberIds = new ArrayList<>();
+        fixture.execute(status -> {
+            final Team team = new Team("statsTeam");
+            em.persist(team);
+            teamId = team.getId();
+            for (int age : new int[]{10, 20, 25}) {
+                final Member member = new Member("statsMember" + age, age, team);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void statisticsFollowCommittedChanges() {
+        TeamStatistics statistics = teamStatisticsAggregator.statistics(teamId);
+        assertThat(statistics.getTeamName()).isEqualTo("statsTeam");
+        assertThat(statistics.getMemberCount()).isEqualTo(3);
+        assertThat(statistics.getAverageAge()).isEqualTo(55 / 3.0);
+        assertThat(statistics.getMinAge()).isEqualTo(10);
+        assertThat(statistics.getMaxAge()).isEqualTo(25);
+        assertThat(statistics.getAgeHistogram()).containsExactly(entry(10, 1L), entry(20, 2L));
+
+        fixture.execute(status -> {
+            em.find(Member.class, memberIds.get(2)).setAge(40);
+            em.remove(em.find(Member.class, memberIds.get(0)));
+            return null;
+        });
+
+        statistics = teamStatisticsAggregator.statistics(teamId);
+        assertThat(statistics.getMemberCount()).isEqualTo(2);
+        assertThat(statistics.getAverageAge()).isEqualTo(30);
+        assertThat(statistics.getMinAge()).isEqualTo(20);
+        assertThat(statistics.getMaxAge()).isEqualTo(40);
+        assertThat(statistics.getAgeHistogram()).containsExactly(entry(20, 1L), entry(40, 1L));
+        assertThat(teamStatisticsAggregator.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    public void recomputeAfterBulkUpdate() {
+        final MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("statsTeam");
+        memberBulkService.adjustAge(condition, 5);
+
+        // 벌크 연산 뒤 다시 집계는 비동기로 예약되므로 직접 실행해 결과를 확인한다
+        teamStatisticsAggregator.recompute();
+
+        final TeamStatistics statistics = teamStatisticsAggregator.statistics(teamId);
+        assertThat(statistics.getMinAge()).isEqualTo(15);
+        assertThat(statistics.getMaxAge()).isEqualTo(30);
+        assertThat(statistics.getAgeHistogram()).containsExactly(entry(10, 1L), entry(20, 1L), entry(30, 1L));
+        assertThat(teamStatisticsAggregator.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    public void changeCommittedWhileRecomputingIsCountedOnce() {
+        final AtomicBoolean interleaved = new AtomicBoolean();
+        // 팀 이름을 읽은 뒤, 나이별 회원 수를 읽기 직전에 회원 추가를 커밋한다
+        doAnswer(invocation -> {
+            if (interleaved.compareAndSet(false, true)) {
+                fixture.execute(status -> {
+                    em.persist(new Member("statsMember30", 30, em.find(Team.class, teamId)));
+                    return null;
+                });
+            }
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).query(startsWith("select team_id, age"), any(RowCallbackHandler.class));
+
+        teamStatisticsAggregator.recompute();
+
+        assertThat(interleaved).isTrue();
+        final TeamStatistics statistics = teamStatisticsAggregator.statistics(teamId);
+        assertThat(statistics.getMemberCount()).isEqualTo(4);
+        assertThat(statistics.getAgeHistogram()).containsExactly(entry(10, 1L), entry(20, 2L), entry(30, 1L));
+        assertThat(teamStatisticsAggregator.verify().isConsistent()).isTrue();
+    }
+}